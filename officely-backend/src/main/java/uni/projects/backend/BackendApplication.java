@@ -3,6 +3,7 @@ package uni.projects.backend;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import uni.projects.backend.exceptions.GeocodingException;
 import uni.projects.backend.services.geocoding.GeocodingService;
 import uni.projects.backend.services.geocoding.GoogleGeocodingService;
@@ -12,6 +13,7 @@ import java.util.concurrent.CompletableFuture;
 
 @SpringBootApplication
 @EnableAsync
+@EnableScheduling
 public class BackendApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,60 @@
+package uni.projects.backend.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import uni.projects.backend.controller.BaseController;
+import uni.projects.backend.utils.BodyArgumentDeserializer;
+import uni.projects.backend.utils.BodyArguments;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves {@link BodyArguments} handler parameters from the request body, binding the keys registered in the
+ * {@code BODY_ARGUMENTS} of the controller straight from the JSON token stream.
+ */
+public class BodyArgumentsResolver implements HandlerMethodArgumentResolver {
+
+    private final BeanFactory beanFactory;
+    private final Map<Class<?>, Map<String, Class<?>>> argumentClasses = new ConcurrentHashMap<>();
+
+    public BodyArgumentsResolver(BeanFactory beanFactory) {
+        this.beanFactory = beanFactory;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return BodyArguments.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) throws IOException {
+        HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
+        if (request == null) {
+            return BodyArguments.EMPTY;
+        }
+        Map<String, Class<?>> classes = argumentClasses.computeIfAbsent(parameter.getContainingClass(), this::argumentClassesOf);
+        try {
+            return BodyArgumentDeserializer.deserializeBodyArguments(request.getInputStream(), classes);
+        } catch (IOException e) {
+            throw new HttpMessageNotReadableException("JSON parse error: " + e.getMessage(),
+                    e, new ServletServerHttpRequest(request));
+        }
+    }
+
+    private Map<String, Class<?>> argumentClassesOf(Class<?> controllerClass) {
+        if (beanFactory.getBean(controllerClass) instanceof BaseController controller) {
+            return controller.getBodyArgumentClasses();
+        }
+        return Map.of();
+    }
+}
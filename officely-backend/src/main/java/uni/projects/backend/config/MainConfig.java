@@ -3,14 +3,17 @@ package uni.projects.backend.config;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import uni.projects.backend.models.PageCursor;
 import uni.projects.backend.openapi.OpenApiConfig;
 
 import javax.sql.DataSource;
@@ -64,6 +67,7 @@ public class MainConfig {
                             .allowedOrigins(allowedOrigins)
                             .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                             .allowedHeaders("*")
+                            .exposedHeaders(PageCursor.NEXT_CURSOR_HEADER)
                             .allowCredentials(true);
                 } else {
                     for (String mapping : mappings) {
@@ -71,6 +75,7 @@ public class MainConfig {
                                 .allowedOrigins(allowedOrigins)
                                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                                 .allowedHeaders("*")
+                                .exposedHeaders(PageCursor.NEXT_CURSOR_HEADER)
                                 .allowCredentials(true);
                     }
                 }
@@ -78,6 +83,16 @@ public class MainConfig {
         };
     }
 
+    @Bean
+    public WebMvcConfigurer bodyArgumentsConfigurer(BeanFactory beanFactory) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+                resolvers.add(new BodyArgumentsResolver(beanFactory));
+            }
+        };
+    }
+
     private String[] getCorsUrls() {
         return Optional.ofNullable(corsUrls)
                 .map(value -> value.split(","))
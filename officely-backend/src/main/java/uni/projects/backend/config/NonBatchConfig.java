@@ -5,13 +5,17 @@ import org.springframework.context.annotation.Profile;
 import uni.projects.backend.dao.UserRepository;
 import uni.projects.backend.services.UserMainService;
 import uni.projects.backend.services.UserService;
+import uni.projects.backend.services.auth.TokenRevocationList;
+import uni.projects.backend.services.cache.OfficeSearchCache;
+import uni.projects.backend.services.cache.UserCache;
 
 @Profile("!batch")
 public class NonBatchConfig {
 
     @Bean
-    public UserService userService(UserRepository userRepository) {
-        return new UserMainService(userRepository);
+    public UserService userService(UserRepository userRepository, UserCache userCache,
+                                   TokenRevocationList tokenRevocationList, OfficeSearchCache officeSearchCache) {
+        return new UserMainService(userRepository, userCache, tokenRevocationList, officeSearchCache);
     }
 
 }
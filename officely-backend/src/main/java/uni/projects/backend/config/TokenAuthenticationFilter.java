@@ -0,0 +1,46 @@
+package uni.projects.backend.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import uni.projects.backend.exceptions.UnauthorizedException;
+import uni.projects.backend.models.user.AuthenticatedUser;
+import uni.projects.backend.services.auth.TokenService;
+
+import java.io.IOException;
+
+/**
+ * Verifies the bearer token of a request once, before it reaches a controller.
+ * <p>
+ * The caller of a valid token is stored in the {@value AuthenticatedUser#REQUEST_ATTRIBUTE} request attribute,
+ * the reason an invalid token was rejected in {@value AuthenticatedUser#ERROR_ATTRIBUTE}. Rejections are left to
+ * the controllers, so that endpoints without authorization keep working with a stale token.
+ */
+@Component
+@Profile("jwt")
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization != null && authorization.startsWith(AuthenticatedUser.BEARER_PREFIX)) {
+            try {
+                String token = authorization.substring(AuthenticatedUser.BEARER_PREFIX.length()).trim();
+                request.setAttribute(AuthenticatedUser.REQUEST_ATTRIBUTE, tokenService.verify(token));
+            } catch (UnauthorizedException e) {
+                request.setAttribute(AuthenticatedUser.ERROR_ATTRIBUTE, e.getMessage());
+            }
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -20,10 +20,10 @@ import uni.projects.backend.services.AmenityService;
 import uni.projects.backend.services.verification.AdminVerificationService;
 import uni.projects.backend.web.AmenityDto;
 import uni.projects.backend.web.OfficeDto;
+import uni.projects.backend.utils.BodyArguments;
 
 import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Amenity Management Controller
@@ -107,7 +107,7 @@ public class AmenityController extends BaseController {
             )
     })
     public ResponseEntity<AmenityDto> addAmenity(
-            @RequestBody(required = false) Map<String, Object> body,
+            BodyArguments body,
             @RequestHeader(value = "Authorization") String authorization) {
 
         User currentUser = getUser(authorization);
@@ -1,17 +1,33 @@
 package uni.projects.backend.controller;
 
 
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
 import uni.projects.backend.exceptions.ArgumentException;
+import uni.projects.backend.exceptions.UnauthorizedException;
+import uni.projects.backend.models.CursorPage;
+import uni.projects.backend.models.PageCursor;
+import uni.projects.backend.models.user.AuthenticatedUser;
 import uni.projects.backend.models.user.User;
 import uni.projects.backend.services.UserService;
+import uni.projects.backend.services.cache.IdempotencyCache;
 import uni.projects.backend.services.verification.VerificationService;
-import uni.projects.backend.utils.BodyArgumentDeserializer;
+import uni.projects.backend.utils.BodyArguments;
 
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 import static uni.projects.backend.utils.StringUtils.capitalizeFirstLetter;
 
@@ -26,6 +42,9 @@ public abstract class BaseController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private IdempotencyCache idempotencyCache;
+
     protected BaseController(VerificationService verificationService,
                              HashMap<String, Class<?>> BODY_ARGUMENTS) {
         this.verification = verificationService;
@@ -33,16 +52,51 @@ public abstract class BaseController {
 
     }
 
-    public User getUser(Map<String, Object> body) {
+    public User getUser(BodyArguments body) {
         String email = deserializeArgument(body, "email");
         return userService.getUserByEmailOrPhoneNumber(email, verification);
     }
 
+    /**
+     * Resolves the caller from the Authorization header: either a bearer token verified by the
+     * {@code TokenAuthenticationFilter}, which is authorized by its role without loading the user,
+     * or the email or phone number of the user.
+     */
     public User getUser(String header) {
+        AuthenticatedUser authenticated = getAuthenticatedUser(header);
+        if (authenticated != null) {
+            verification.verifyRole(authenticated.role());
+            return userService.getUserReference(authenticated.userId());
+        }
         String email = parseEmailFromHeader(header);
         return userService.getUserByEmailOrPhoneNumber(email, verification);
     }
 
+    /**
+     * Resolves the caller like {@link #getUser(String)}, but also loads a user authenticated by a bearer token,
+     * so that a user deleted after the token was issued is rejected.
+     */
+    public User getLoadedUser(String header) {
+        AuthenticatedUser authenticated = getAuthenticatedUser(header);
+        if (authenticated != null) {
+            verification.verifyRole(authenticated.role());
+            return userService.getUserById(authenticated.userId(), verification);
+        }
+        return getUser(header);
+    }
+
+    private AuthenticatedUser getAuthenticatedUser(String header) {
+        if (header == null || !header.startsWith(AuthenticatedUser.BEARER_PREFIX)
+                || !(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return null;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        if (request.getAttribute(AuthenticatedUser.ERROR_ATTRIBUTE) instanceof String error) {
+            throw new UnauthorizedException(error);
+        }
+        return (AuthenticatedUser) request.getAttribute(AuthenticatedUser.REQUEST_ATTRIBUTE);
+    }
+
     private String parseEmailFromHeader(String emailHeader) {
         if (emailHeader == null) {
             throw new IllegalArgumentException("Invalid email in Authorization header");
@@ -50,8 +104,15 @@ public abstract class BaseController {
         return emailHeader;
     }
 
-    public <T> T deserializeArgument(Map<String, Object> body, String key) {
-        T t = BodyArgumentDeserializer.deserializeBodyArgument(body, key, BODY_ARGUMENTS.get(key));
+    /**
+     * @return the class each body argument is deserialized to, by key
+     */
+    public Map<String, Class<?>> getBodyArgumentClasses() {
+        return Collections.unmodifiableMap(BODY_ARGUMENTS);
+    }
+
+    public <T> T deserializeArgument(BodyArguments body, String key) {
+        T t = body == null ? null : body.get(key);
 
         if(t == null) {
             throw new ArgumentException(capitalizeFirstLetter(key) + " is required");
@@ -59,4 +120,37 @@ public abstract class BaseController {
 
         return t;
     }
+
+    /**
+     * Returns the page content as the body and the cursor of the next page, if any, in the {@value PageCursor#NEXT_CURSOR_HEADER} header.
+     */
+    protected <T> ResponseEntity<List<T>> pageResponse(CursorPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(PageCursor.NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.content());
+    }
+
+    /**
+     * Runs a mutating request at most once per {@value IdempotencyCache#HEADER} and caller, replaying the response
+     * of the first run to retries. The handler should resolve the user inside the response, so that a replay does
+     * not touch the database.
+     *
+     * @param request what identifies the request besides the key: the operation, path variables and body
+     */
+    protected <T> T idempotent(String idempotencyKey, String authorization, Supplier<T> response, Object... request) {
+        return idempotencyCache.execute(idempotencyKey, authorization, Arrays.asList(request), handlerReturnType(), response);
+    }
+
+    /**
+     * @return the generic return type of the handler method serving the current request, null outside of a request
+     */
+    private static Type handlerReturnType() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                && attributes.getRequest().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler) {
+            return handler.getReturnType().getGenericParameterType();
+        }
+        return null;
+    }
 }
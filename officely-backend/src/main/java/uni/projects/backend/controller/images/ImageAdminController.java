@@ -20,9 +20,9 @@ import uni.projects.backend.models.user.User;
 import uni.projects.backend.services.ImageService;
 import uni.projects.backend.services.verification.AdminVerificationService;
 import uni.projects.backend.web.ImageDto;
+import uni.projects.backend.utils.BodyArguments;
 
 import java.util.HashMap;
-import java.util.Map;
 
 /**
  * Image Management Controller for Admins
@@ -103,7 +103,7 @@ public class ImageAdminController extends BaseController {
                     content = @Content
             )
     })
-    public ResponseEntity<ImageDto> createImage(@RequestBody(required = false) Map<String, Object> body,
+    public ResponseEntity<ImageDto> createImage(BodyArguments body,
                                                 @RequestHeader(value = "Authorization") String authorization) {
         User currentUser = getUser(authorization);
 
@@ -6,18 +6,25 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import uni.projects.backend.controller.BaseController;
 import uni.projects.backend.controller.paths.PATHS;
 import uni.projects.backend.controller.paths.PATH_PREFIXES;
+import uni.projects.backend.models.office.ImageMetadata;
 import uni.projects.backend.models.user.User;
 import uni.projects.backend.services.ImageService;
 import uni.projects.backend.services.verification.AnyVerificationService;
 import uni.projects.backend.services.verification.UserVerificationService;
 import uni.projects.backend.web.ImageDto;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 
@@ -26,16 +33,20 @@ import java.util.List;
  *
  * This controller provides endpoints for users to:
  * - Retrieve details of a specific image by ID.
+ * - Retrieve the binary data of a specific image by ID.
  *
  * Endpoints:
  * - GET /user/images/{id}: Retrieve details of a specific image by ID.
+ * - GET /user/images/{id}/data: Retrieve the binary data of a specific image by ID.
  */
-@Controller
+@RestController
 @RequestMapping(path = ImageUserController.IMAGES_PATH)
 public class ImageUserController extends BaseController {
 
         static final String IMAGES_PATH = PATH_PREFIXES.USER_PATH + PATHS.IMAGES_PATH;
 
+        private static final Duration IMAGE_MAX_AGE = Duration.ofDays(365);
+
         @Autowired
         private ImageService imageService;
 
@@ -79,4 +90,69 @@ public class ImageUserController extends BaseController {
 
                 return ResponseEntity.ok().body(imageService.getImage(id));
         }
+
+        /**
+         * Retrieve the raw data of a specific image by ID.
+         * <p>
+         * Images are never changed once created, so the response can be cached for good and is validated by
+         * its strong ETag; a conditional request with a matching ETag is answered without loading the data.
+         * Range requests are answered with the requested parts of the data.
+         *
+         * @param id the ID of the image
+         * @param authorization the authorization token (user email)
+         * @return the data of the image
+         */
+        @GetMapping("/{id}/data")
+        @Operation(
+                summary = "Retrieve the data of a specific image by ID",
+                description = "Retrieve the binary data of an image with its content type. Supports conditional " +
+                        "requests with If-None-Match and partial requests with Range.",
+                tags = {"Image"}
+        )
+        @ApiResponses(value = {
+                @ApiResponse(
+                        responseCode = "200",
+                        description = "Image data retrieved successfully",
+                        content = @Content(mediaType = "image/*")
+                ),
+                @ApiResponse(
+                        responseCode = "206",
+                        description = "Requested range of the image data",
+                        content = @Content(mediaType = "image/*")
+                ),
+                @ApiResponse(
+                        responseCode = "304",
+                        description = "Image not modified",
+                        content = @Content
+                ),
+                @ApiResponse(
+                        responseCode = "404",
+                        description = "Image not found",
+                        content = @Content
+                ),
+                @ApiResponse(
+                        responseCode = "416",
+                        description = "Requested range not satisfiable",
+                        content = @Content
+                )
+        })
+        public ResponseEntity<Resource> getImageData(@PathVariable Integer id,
+                                                     @RequestHeader(value = "Authorization") String authorization,
+                                                     WebRequest request) {
+                getUser(authorization);
+
+                ImageMetadata metadata = imageService.getImageMetadata(id);
+                String eTag = "\"" + metadata.getSha256() + "\"";
+                if (request.checkNotModified(eTag)) {
+                        return null;
+                }
+
+                return ResponseEntity.ok()
+                        .contentType(MediaType.parseMediaType(metadata.getContentType()))
+                        .contentLength(metadata.getSize())
+                        .eTag(eTag)
+                        .cacheControl(CacheControl.maxAge(IMAGE_MAX_AGE).cachePrivate().immutable())
+                        .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                        .body(new ByteArrayResource(imageService.getImageData(id)));
+        }
 }
\ No newline at end of file
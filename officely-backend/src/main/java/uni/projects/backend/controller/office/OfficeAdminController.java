@@ -22,11 +22,10 @@ import uni.projects.backend.models.office.Office;
 import uni.projects.backend.models.user.User;
 import uni.projects.backend.services.OfficeService;
 import uni.projects.backend.services.verification.AdminVerificationService;
-import uni.projects.backend.utils.BodyArgumentDeserializer;
 import uni.projects.backend.web.OfficeDto;
+import uni.projects.backend.utils.BodyArguments;
 
 import java.util.HashMap;
-import java.util.Map;
 
 /**
  * Office Management Controller for Admins
@@ -119,7 +118,7 @@ public class OfficeAdminController extends BaseController {
                     content = @Content
             )
     })
-    public ResponseEntity<OfficeDto> createOffice(@RequestBody(required = false) Map<String, Object> body,
+    public ResponseEntity<OfficeDto> createOffice(BodyArguments body,
                                                   @RequestHeader(value = "Authorization") String authorization) {
 
         User currentUser = getUser(authorization);
@@ -242,13 +241,13 @@ public class OfficeAdminController extends BaseController {
                     content = @Content
             )
     })
-    public ResponseEntity<OfficeDto> updateOffice(@RequestBody(required = false) Map<String, Object> body,
+    public ResponseEntity<OfficeDto> updateOffice(BodyArguments body,
                                                   @RequestParam String id,
                                                   @RequestHeader("Authorization") String authorization) {
 
         User currentUser = getUser(authorization);
 
-        OfficeDto office = BodyArgumentDeserializer.deserializeBodyArgument(body, "office", BODY_ARGUMENTS.get("office"));
+        OfficeDto office = body.get("office");
         if (office == null) {
             throw new IllegalArgumentException("Office is required");
         }
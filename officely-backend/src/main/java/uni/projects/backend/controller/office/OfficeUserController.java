@@ -10,6 +10,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import uni.projects.backend.controller.BaseController;
 import uni.projects.backend.controller.paths.PATHS;
+import uni.projects.backend.models.CursorPage;
+import uni.projects.backend.models.PageCursor;
+import uni.projects.backend.models.office.Availability;
 import uni.projects.backend.models.office.OfficeFilter;
 import uni.projects.backend.services.OfficeService;
 import uni.projects.backend.services.TrafficStatisticService;
@@ -60,6 +63,7 @@ public class OfficeUserController extends BaseController {
      * @param ascending whether the sorting should be ascending (default is true)
      * @param page the page number for pagination (default is 0)
      * @param pageSize the number of items per page for pagination (default is 10)
+     * @param cursor the {@value PageCursor#NEXT_CURSOR_HEADER} of the previous page; if set, the page continues after it and page is ignored
      * @param officeFilter the filter criteria for offices
      * @return a list of available offices
      */
@@ -95,6 +99,7 @@ public class OfficeUserController extends BaseController {
             @RequestParam(required = false, defaultValue = "true") boolean ascending,
             @RequestParam(required = false) Integer page,
             @RequestParam(required = false) Integer pageSize,
+            @RequestParam(required = false) String cursor,
             @ModelAttribute OfficeFilter officeFilter) {
 
         if(page == null) {
@@ -124,9 +129,9 @@ public class OfficeUserController extends BaseController {
 
         trafficStatisticService.incrementVisitorsBetweenDates(dateStart, dateEnd);
 
-        List<OfficeDto> offices = officeService.findAvailableOfficesAndFilter(dateStart, dateEnd, officeFilter, sortBy, ascending, page, pageSize);
+        CursorPage<OfficeDto> offices = officeService.findAvailableOfficesAndFilter(dateStart, dateEnd, officeFilter, sortBy, ascending, page, pageSize, cursor);
 
-        return ResponseEntity.ok().body(offices);
+        return pageResponse(offices);
     }
 
     /**
@@ -164,13 +169,14 @@ public class OfficeUserController extends BaseController {
      * Check the availability of a specific office by ID and date.
      *
      * @param id the ID of the office
-     * @param dateStart the start date to check availability
-     * @return a list of availability statuses
+     * @param dateStart the start date to check availability; the calendar starts on the first day of its month
+     * @param dateEnd the last date to check (optional, defaults to the end of the month of dateStart)
+     * @return the free days with their price multipliers
      */
     @GetMapping("/{id}/availability")
     @Operation(
             summary = "Check the availability of a specific office by ID and date",
-            description = "Check the availability of a specific office by its ID and a given start date.",
+            description = "Check the availability of a specific office by its ID from the month of the given start date up to an optional end date (at most 366 days).",
             tags = {"Office"},
             requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
                     content = @Content(
@@ -185,7 +191,7 @@ public class OfficeUserController extends BaseController {
                     description = "Office availability retrieved successfully",
                     content = @Content(
                             mediaType = "application/json",
-                            schema = @Schema(implementation = OfficeService.Availability.class)
+                            schema = @Schema(implementation = Availability.class)
                     )
             ),
             @ApiResponse(
@@ -199,10 +205,11 @@ public class OfficeUserController extends BaseController {
                     content = @Content
             )
     })
-    public ResponseEntity<List<OfficeService.Availability>> isOfficeAvailable(@PathVariable String id,
-                                                                              @RequestParam(required = true) LocalDate dateStart) {
+    public ResponseEntity<List<Availability>> isOfficeAvailable(@PathVariable String id,
+                                                                @RequestParam(required = true) LocalDate dateStart,
+                                                                @RequestParam(required = false) LocalDate dateEnd) {
 
-        List<OfficeService.Availability> availableDates = officeService.getAvailableDatesWithPriceMultiplyer(id, dateStart);
+        List<Availability> availableDates = officeService.getAvailableDatesWithPriceMultiplyer(id, dateStart, dateEnd);
 
         return ResponseEntity.ok().body(availableDates);
     }
@@ -10,8 +10,10 @@ import uni.projects.backend.controller.paths.PATH_PREFIXES;
 import uni.projects.backend.models.user.User;
 import uni.projects.backend.services.api.ParkingReservationService;
 import uni.projects.backend.services.api.ParkingService;
+import uni.projects.backend.services.cache.IdempotencyCache;
 import uni.projects.backend.services.verification.UserVerificationService;
 import uni.projects.backend.web.api.*;
+import uni.projects.backend.utils.BodyArguments;
 
 import java.time.LocalDate;
 import java.util.*;
@@ -67,36 +69,39 @@ public class ParkingController extends BaseController {
 
     @PostMapping("/reservation")
     @ResponseBody
-    public ParkingReservationDto reserveParkingSpot(@RequestBody Map<String, Object> reservationRequest,
-                                                    @RequestHeader(value = "Authorization") String authorization) {
+    public ParkingReservationDto reserveParkingSpot(BodyArguments reservationRequest,
+                                                    @RequestHeader(value = "Authorization") String authorization,
+                                                    @RequestHeader(value = IdempotencyCache.HEADER, required = false) String idempotencyKey) {
 
-        User currentUser = getUser(authorization);
+        return idempotent(idempotencyKey, authorization, () -> {
+            User currentUser = getUser(authorization);
 
-        String username = generateUsername(currentUser);
-        ParklyUserRequestDto parklyUser = new ParklyUserRequestDto(username, currentUser.getEmail(), currentUser.getName(), currentUser.getSurname(), currentUser.getRole());
+            String username = generateUsername(currentUser);
+            ParklyUserRequestDto parklyUser = new ParklyUserRequestDto(username, currentUser.getEmail(), currentUser.getName(), currentUser.getSurname(), currentUser.getRole());
 
-        try {
+            try {
 
-            Integer parkingAreaId = deserializeArgument(reservationRequest, "parkingAreaId");
+                Integer parkingAreaId = deserializeArgument(reservationRequest, "parkingAreaId");
 
 
-            ParklyUserDto parklyUserDto = parkingService.createOrLogin(parklyUser);
-            Integer parkingSpotId = getParkingSpot(parkingAreaId).getBody().id();
-            Integer userId = parklyUserDto.id();
-            LocalDate startTime = deserializeArgument(reservationRequest,"startTime");
-            LocalDate endTime = deserializeArgument(reservationRequest,"endTime");
+                ParklyUserDto parklyUserDto = parkingService.createOrLogin(parklyUser);
+                Integer parkingSpotId = getParkingSpot(parkingAreaId).getBody().id();
+                Integer userId = parklyUserDto.id();
+                LocalDate startTime = deserializeArgument(reservationRequest,"startTime");
+                LocalDate endTime = deserializeArgument(reservationRequest,"endTime");
 
-            return parkingReservationService.reserveParkingSpot(
-                    parkingSpotId,
-                    userId,
-                    startTime,
-                    endTime
+                return parkingReservationService.reserveParkingSpot(
+                        parkingSpotId,
+                        userId,
+                        startTime,
+                        endTime
 
-            );
-        } catch (Exception e) {
-            e.printStackTrace();
-            throw new RuntimeException("Failed to reserve parking spot");
-        }
+                );
+            } catch (Exception e) {
+                e.printStackTrace();
+                throw new RuntimeException("Failed to reserve parking spot");
+            }
+        }, "reserveParkingSpot", reservationRequest);
     }
 
     @DeleteMapping("/reservation")
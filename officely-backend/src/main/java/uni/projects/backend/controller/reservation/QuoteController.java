@@ -0,0 +1,99 @@
+package uni.projects.backend.controller.reservation;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import uni.projects.backend.controller.BaseController;
+import uni.projects.backend.services.ReservationService;
+import uni.projects.backend.services.verification.UserVerificationService;
+import uni.projects.backend.web.QuoteDto;
+import uni.projects.backend.utils.BodyArguments;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+@RestController
+@RequestMapping(QuoteController.QUOTE_PATH)
+public class QuoteController extends BaseController {
+
+    static final String QUOTE_PATH = ReservationController.RESERVATION_PATH + "/quotes";
+
+    public QuoteController() {
+        super(new UserVerificationService(),
+                new HashMap<>() {{
+                    put("quotes", QuoteDto[].class);
+                }}
+        );
+    }
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @PostMapping("/office/{officeId}")
+    @Operation(
+            summary = "Quote reservations",
+            description = "Prices date ranges for a specific office without creating reservations. " +
+                    "Every day is charged with its own price multiplier.",
+            tags = {"Reservation"},
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    content = @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = QuoteDto.class))
+                    )
+            ),
+            parameters = {
+                    @Parameter(
+                            name = "Authorization",
+                            in = ParameterIn.HEADER,
+                            required = true,
+                            description = "Authorization token (user email) to authenticate the user",
+                            schema = @Schema(type = "string")
+                    )
+            }
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Quotes calculated successfully, in the order of the requested ranges",
+                    content = @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = QuoteDto.class))
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Forbidden: User validation failed",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Office not found",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "412",
+                    description = "Invalid date range provided",
+                    content = @Content
+            )
+    })
+    public ResponseEntity<List<QuoteDto>> quoteReservations(BodyArguments body,
+                                                            @PathVariable String officeId,
+                                                            @RequestHeader("Authorization") String authorization) {
+
+        getUser(authorization);
+        QuoteDto[] ranges = deserializeArgument(body, "quotes");
+
+        List<QuoteDto> quotes = reservationService.quoteReservations(officeId, Arrays.asList(ranges));
+
+        return ResponseEntity.ok(quotes);
+    }
+}
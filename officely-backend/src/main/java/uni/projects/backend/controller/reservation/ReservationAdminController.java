@@ -1,21 +1,31 @@
 package uni.projects.backend.controller.reservation;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import uni.projects.backend.controller.BaseController;
 import uni.projects.backend.controller.paths.PATHS;
 import uni.projects.backend.controller.paths.PATH_PREFIXES;
+import uni.projects.backend.models.CursorPage;
+import uni.projects.backend.models.reservation.ExportFormat;
 import uni.projects.backend.models.reservation.ReservationFilter;
 import uni.projects.backend.models.user.User;
 import uni.projects.backend.services.ReservationService;
+import uni.projects.backend.services.cache.IdempotencyCache;
+import uni.projects.backend.services.export.ReservationExportService;
 import uni.projects.backend.services.verification.AdminVerificationService;
 import uni.projects.backend.services.verification.VerificationService;
 import uni.projects.backend.web.ReservationDto;
+import uni.projects.backend.utils.BodyArguments;
 
 import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import static uni.projects.backend.controller.reservation.ReservationAdminController.RESERVATION_PATH;
 
@@ -28,19 +38,26 @@ public class ReservationAdminController extends BaseController {
     public ReservationAdminController() {
         super(new AdminVerificationService(),
                 new HashMap<>() {{
-
+                    put("reservation", ReservationDto.class);
                 }});
     }
 
     @Autowired
     private ReservationService reservationService;
 
+    @Autowired
+    private ReservationExportService reservationExportService;
+
+    @Value("${reservation.export.timeout-millis:1800000}")
+    private long exportTimeoutMillis;
+
     @GetMapping
     public ResponseEntity<List<ReservationDto>> getReservations(
             @RequestParam(required = false) String sortBy,
             @RequestParam(required = false, defaultValue = "true") boolean ascending,
             @RequestParam(required = false) Integer page,
             @RequestParam(required = false) Integer pageSize,
+            @RequestParam(required = false) String cursor,
             @ModelAttribute ReservationFilter filter,
             @RequestHeader("Authorization") String authorization) {
 
@@ -53,9 +70,32 @@ public class ReservationAdminController extends BaseController {
 
         User currentUser = getUser(authorization);
 
-        List<ReservationDto> reservations = reservationService.getAdminReservations(currentUser, sortBy, ascending, filter, page, pageSize);
+        CursorPage<ReservationDto> reservations = reservationService.getAdminReservations(currentUser, sortBy, ascending, filter, page, pageSize, cursor);
+
+        return pageResponse(reservations);
+    }
+
+    /**
+     * Streams all reservations matching the filter, without paging, as NDJSON or CSV.
+     * Only this request gets the long {@code reservation.export.timeout-millis}, other async requests keep the default.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportReservations(
+            @RequestParam(required = false, defaultValue = "ndjson") String format,
+            @ModelAttribute ReservationFilter filter,
+            @RequestHeader("Authorization") String authorization,
+            NativeWebRequest request) {
+
+        getUser(authorization);
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(exportTimeoutMillis);
 
-        return ResponseEntity.ok(reservations);
+        StreamingResponseBody body = output -> reservationExportService.export(filter, exportFormat, output);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"reservations." + exportFormat.getExtension() + "\"")
+                .body(body);
     }
 
     @GetMapping("/{id}")
@@ -71,25 +111,31 @@ public class ReservationAdminController extends BaseController {
 
     @PutMapping("/{id}")
     public ResponseEntity<ReservationDto> updateReservation(@PathVariable String id,
-                                                            @RequestBody(required = false) Map<String, Object> body,
-                                                            @RequestHeader("Authorization") String authorization) {
+                                                            BodyArguments body,
+                                                            @RequestHeader("Authorization") String authorization,
+                                                            @RequestHeader(value = IdempotencyCache.HEADER, required = false) String idempotencyKey) {
 
-        User currentUser = getUser(authorization);
+        return idempotent(idempotencyKey, authorization, () -> {
+            User currentUser = getUser(authorization);
 
-        ReservationDto reservationDto = deserializeArgument(body, "reservation");
+            ReservationDto reservationDto = deserializeArgument(body, "reservation");
 
-        ReservationDto reservation = reservationService.updateAdminReservation(id, reservationDto, currentUser);
-        return ResponseEntity.ok(reservation);
+            ReservationDto reservation = reservationService.updateAdminReservation(id, reservationDto, currentUser);
+            return ResponseEntity.ok(reservation);
+        }, "updateAdminReservation", id, body);
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<ReservationDto> deleteReservation(@PathVariable String id,
-                                                            @RequestHeader("Authorization") String authorization) {
+                                                            @RequestHeader("Authorization") String authorization,
+                                                            @RequestHeader(value = IdempotencyCache.HEADER, required = false) String idempotencyKey) {
 
-        User currentUser = getUser(authorization);
+        return idempotent(idempotencyKey, authorization, () -> {
+            User currentUser = getUser(authorization);
 
-        ReservationDto reservation = reservationService.cancelAdminReservation(id, currentUser);
+            ReservationDto reservation = reservationService.cancelAdminReservation(id, currentUser);
 
-        return ResponseEntity.ok(reservation);
+            return ResponseEntity.ok(reservation);
+        }, "cancelAdminReservation", id);
     }
 }
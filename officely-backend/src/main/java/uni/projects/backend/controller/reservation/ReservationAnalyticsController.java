@@ -0,0 +1,106 @@
+package uni.projects.backend.controller.reservation;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import uni.projects.backend.controller.BaseController;
+import uni.projects.backend.models.analytics.RollupDimension;
+import uni.projects.backend.models.analytics.RollupPeriod;
+import uni.projects.backend.services.analytics.ReservationAnalyticsService;
+import uni.projects.backend.services.verification.AdminVerificationService;
+import uni.projects.backend.web.ReservationRollupDto;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+
+@RestController
+@RequestMapping(ReservationAnalyticsController.ANALYTICS_PATH)
+public class ReservationAnalyticsController extends BaseController {
+
+    static final String ANALYTICS_PATH = ReservationAdminController.RESERVATION_PATH + "/analytics";
+
+    public ReservationAnalyticsController() {
+        super(new AdminVerificationService(),
+                new HashMap<>() {{
+
+                }});
+    }
+
+    @Autowired
+    private ReservationAnalyticsService reservationAnalyticsService;
+
+    @GetMapping
+    @Operation(
+            summary = "Roll up reservations",
+            description = "Sums booked days, revenue, cancellations and the payment type mix of the reservations " +
+                    "per city, country or owner and per month or year, from the pre-aggregated reservation cube.",
+            tags = {"Reservation"},
+            parameters = {
+                    @Parameter(
+                            name = "Authorization",
+                            in = ParameterIn.HEADER,
+                            required = true,
+                            description = "Authorization token (user email) to authenticate the admin",
+                            schema = @Schema(type = "string")
+                    )
+            }
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Roll-up calculated successfully",
+                    content = @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = ReservationRollupDto.class))
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Forbidden: User is not an admin",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "412",
+                    description = "Invalid dimension, period or date range provided",
+                    content = @Content
+            )
+    })
+    public ResponseEntity<List<ReservationRollupDto>> rollup(
+            @RequestParam(required = false, defaultValue = "city") String groupBy,
+            @RequestParam(required = false, defaultValue = "month") String period,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate from,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate to,
+            @RequestHeader("Authorization") String authorization) {
+
+        getUser(authorization);
+
+        List<ReservationRollupDto> rollup = reservationAnalyticsService.rollup(
+                RollupDimension.parse(groupBy), RollupPeriod.parse(period), from, to);
+
+        return ResponseEntity.ok(rollup);
+    }
+
+    /**
+     * Recomputes the reservation cube from all reservations.
+     */
+    @PostMapping("/rebuild")
+    public ResponseEntity<Void> rebuild(@RequestHeader("Authorization") String authorization) {
+
+        getUser(authorization);
+
+        boolean rebuilt = reservationAnalyticsService.rebuild();
+
+        return ResponseEntity.status(rebuilt ? HttpStatus.NO_CONTENT : HttpStatus.CONFLICT).build();
+    }
+}
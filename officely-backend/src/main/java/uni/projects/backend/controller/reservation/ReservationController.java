@@ -3,6 +3,7 @@ package uni.projects.backend.controller.reservation;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -13,16 +14,20 @@ import org.springframework.web.bind.annotation.*;
 import uni.projects.backend.controller.BaseController;
 import uni.projects.backend.controller.paths.PATHS;
 import uni.projects.backend.controller.paths.PATH_PREFIXES;
+import uni.projects.backend.models.CursorPage;
 import uni.projects.backend.models.reservation.ReservationFilter;
 import uni.projects.backend.models.user.User;
 import uni.projects.backend.services.ReservationService;
+import uni.projects.backend.services.cache.IdempotencyCache;
 import uni.projects.backend.services.verification.UserVerificationService;
 import uni.projects.backend.web.ImageDto;
+import uni.projects.backend.web.ReservationBatchDto;
+import uni.projects.backend.web.ReservationBatchResultDto;
 import uni.projects.backend.web.ReservationDto;
+import uni.projects.backend.utils.BodyArguments;
 
 import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 @RestController
 @RequestMapping(ReservationController.RESERVATION_PATH)
@@ -35,6 +40,7 @@ public class ReservationController extends BaseController {
                 new HashMap<>() {{
                     put("reservation", ReservationDto.class);
                     put("filter", ReservationFilter.class);
+                    put("batch", ReservationBatchDto.class);
                 }}
         );
     }
@@ -83,16 +89,76 @@ public class ReservationController extends BaseController {
                     content = @Content
             )
     })
-    public ResponseEntity<ReservationDto> createReservation(@RequestBody(required = false) Map<String, Object> body,
+    public ResponseEntity<ReservationDto> createReservation(BodyArguments body,
                                                             @PathVariable String officeId,
-                                                            @RequestHeader("Authorization") String authorization) {
+                                                            @RequestHeader("Authorization") String authorization,
+                                                            @RequestHeader(value = IdempotencyCache.HEADER, required = false) String idempotencyKey) {
 
-        User currentUser = getUser(authorization);
-        ReservationDto reservationDto = deserializeArgument(body, "reservation");
+        return idempotent(idempotencyKey, authorization, () -> {
+            User currentUser = getUser(authorization);
+            ReservationDto reservationDto = deserializeArgument(body, "reservation");
 
-        ReservationDto reservation = reservationService.createReservation(reservationDto, currentUser, officeId);
+            ReservationDto reservation = reservationService.createReservation(reservationDto, currentUser, officeId);
 
-        return ResponseEntity.ok(reservation);
+            return ResponseEntity.ok(reservation);
+        }, "createReservation", officeId, body);
+    }
+
+    @PostMapping("/batch")
+    @Operation(
+            summary = "Create reservations in bulk",
+            description = "Creates many reservations, for any offices, in one transaction. In ALL_OR_NOTHING mode nothing is " +
+                    "created if any reservation is invalid or overlaps another one; in BEST_EFFORT mode the others are created " +
+                    "and the failures are reported per reservation.",
+            tags = {"Reservation"},
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ReservationBatchDto.class)
+                    )
+            ),
+            parameters = {
+                    @Parameter(
+                            name = "Authorization",
+                            in = ParameterIn.HEADER,
+                            required = true,
+                            description = "Authorization token (user email) to authenticate the user",
+                            schema = @Schema(type = "string")
+                    )
+            }
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "The outcome of every reservation, in the order of the batch",
+                    content = @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = ReservationBatchResultDto.class))
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Forbidden: User validation failed",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "412",
+                    description = "Invalid batch, or a reservation could not be booked in ALL_OR_NOTHING mode",
+                    content = @Content
+            )
+    })
+    public ResponseEntity<List<ReservationBatchResultDto>> createReservations(BodyArguments body,
+                                                                              @RequestHeader("Authorization") String authorization,
+                                                                              @RequestHeader(value = IdempotencyCache.HEADER, required = false) String idempotencyKey) {
+
+        return idempotent(idempotencyKey, authorization, () -> {
+            User currentUser = getUser(authorization);
+            ReservationBatchDto batch = deserializeArgument(body, "batch");
+
+            List<ReservationBatchResultDto> results = reservationService.createReservations(batch.reservations(), batch.mode(), currentUser);
+
+            return ResponseEntity.ok(results);
+        }, "createReservations", body);
     }
 
     @GetMapping
@@ -136,6 +202,7 @@ public class ReservationController extends BaseController {
             @RequestParam(required = false, defaultValue = "true") boolean ascending,
             @RequestParam(required = false) Integer page,
             @RequestParam(required = false) Integer pageSize,
+            @RequestParam(required = false) String cursor,
             @ModelAttribute ReservationFilter filter,
             @RequestHeader("Authorization") String authorization) {
 
@@ -148,9 +215,9 @@ public class ReservationController extends BaseController {
 
         User currentUser = getUser(authorization);
 
-        List<ReservationDto> reservations = reservationService.getReservations(currentUser, sortBy, ascending, filter, page, pageSize);
+        CursorPage<ReservationDto> reservations = reservationService.getReservations(currentUser, sortBy, ascending, filter, page, pageSize, cursor);
 
-        return ResponseEntity.ok(reservations);
+        return pageResponse(reservations);
     }
 
     @GetMapping("/{id}")
@@ -246,15 +313,18 @@ public class ReservationController extends BaseController {
             )
     })
     public ResponseEntity<ReservationDto> updateReservation(@PathVariable String id,
-                                                            @RequestBody(required = false) Map<String, Object> body,
-                                                            @RequestHeader("Authorization") String authorization) {
+                                                            BodyArguments body,
+                                                            @RequestHeader("Authorization") String authorization,
+                                                            @RequestHeader(value = IdempotencyCache.HEADER, required = false) String idempotencyKey) {
 
-        User currentUser = getUser(authorization);
+        return idempotent(idempotencyKey, authorization, () -> {
+            User currentUser = getUser(authorization);
 
-        ReservationDto reservationDto = deserializeArgument(body, "reservation");
+            ReservationDto reservationDto = deserializeArgument(body, "reservation");
 
-        ReservationDto reservation = reservationService.updateReservation(id, reservationDto, currentUser);
-        return ResponseEntity.ok(reservation);
+            ReservationDto reservation = reservationService.updateReservation(id, reservationDto, currentUser);
+            return ResponseEntity.ok(reservation);
+        }, "updateReservation", id, body);
     }
 
     @DeleteMapping("/{id}")
@@ -293,13 +363,16 @@ public class ReservationController extends BaseController {
             )
     })
     public ResponseEntity<ReservationDto> deleteReservation(@PathVariable String id,
-                                                            @RequestHeader("Authorization") String authorization) {
+                                                            @RequestHeader("Authorization") String authorization,
+                                                            @RequestHeader(value = IdempotencyCache.HEADER, required = false) String idempotencyKey) {
 
-        User currentUser = getUser(authorization);
+        return idempotent(idempotencyKey, authorization, () -> {
+            User currentUser = getUser(authorization);
 
-        ReservationDto reservation = reservationService.cancelReservation(id, currentUser);
+            ReservationDto reservation = reservationService.cancelReservation(id, currentUser);
 
-        return ResponseEntity.ok(reservation);
+            return ResponseEntity.ok(reservation);
+        }, "cancelReservation", id);
     }
 
     @PostMapping("/{id}/pay")
@@ -329,11 +402,14 @@ public class ReservationController extends BaseController {
             )
     })
     public ResponseEntity<ReservationDto> payReservation(@PathVariable String id,
-                                                         @RequestHeader("Authorization") String authorization) {
+                                                         @RequestHeader("Authorization") String authorization,
+                                                         @RequestHeader(value = IdempotencyCache.HEADER, required = false) String idempotencyKey) {
 
-        User currentUser = getUser(authorization);
-        ReservationDto reservation = reservationService.payReservation(id, currentUser);
+        return idempotent(idempotencyKey, authorization, () -> {
+            User currentUser = getUser(authorization);
+            ReservationDto reservation = reservationService.payReservation(id, currentUser);
 
-        return ResponseEntity.ok(reservation);
+            return ResponseEntity.ok(reservation);
+        }, "payReservation", id);
     }
 }
\ No newline at end of file
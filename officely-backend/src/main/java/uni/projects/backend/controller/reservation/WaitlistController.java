@@ -0,0 +1,155 @@
+package uni.projects.backend.controller.reservation;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import uni.projects.backend.controller.BaseController;
+import uni.projects.backend.models.user.User;
+import uni.projects.backend.services.WaitlistService;
+import uni.projects.backend.services.cache.IdempotencyCache;
+import uni.projects.backend.services.verification.UserVerificationService;
+import uni.projects.backend.web.WaitlistEntryDto;
+import uni.projects.backend.utils.BodyArguments;
+
+import java.util.HashMap;
+import java.util.List;
+
+@RestController
+@RequestMapping(WaitlistController.WAITLIST_PATH)
+public class WaitlistController extends BaseController {
+
+    static final String WAITLIST_PATH = ReservationController.RESERVATION_PATH + "/waitlist";
+
+    public WaitlistController() {
+        super(new UserVerificationService(),
+                new HashMap<>() {{
+                    put("waitlist", WaitlistEntryDto.class);
+                }}
+        );
+    }
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @PostMapping
+    @Operation(
+            summary = "Join the waitlist",
+            description = "Waits for an office, or any office of a city, to be free for a date range. " +
+                    "When a reservation overlapping the range is cancelled, the range is booked for the user, " +
+                    "first come, first served, and the entry is fulfilled with the ID of the new reservation.",
+            tags = {"Reservation"},
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = WaitlistEntryDto.class)
+                    )
+            ),
+            parameters = {
+                    @Parameter(
+                            name = "Authorization",
+                            in = ParameterIn.HEADER,
+                            required = true,
+                            description = "Authorization token (user email) to authenticate the user",
+                            schema = @Schema(type = "string")
+                    )
+            }
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Waitlist entry created successfully",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = WaitlistEntryDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Forbidden: User validation failed",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Office not found",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "412",
+                    description = "Invalid entry provided",
+                    content = @Content
+            )
+    })
+    public ResponseEntity<WaitlistEntryDto> addEntry(BodyArguments body,
+                                                     @RequestHeader("Authorization") String authorization,
+                                                     @RequestHeader(value = IdempotencyCache.HEADER, required = false) String idempotencyKey) {
+
+        return idempotent(idempotencyKey, authorization, () -> {
+            User currentUser = getUser(authorization);
+            WaitlistEntryDto entryDto = deserializeArgument(body, "waitlist");
+
+            WaitlistEntryDto entry = waitlistService.addEntry(entryDto, currentUser);
+
+            return ResponseEntity.ok(entry);
+        }, "addWaitlistEntry", body);
+    }
+
+    @GetMapping
+    @Operation(
+            summary = "Get waitlist entries",
+            description = "Lists the waitlist entries of the user, newest first.",
+            tags = {"Reservation"}
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Waitlist entries retrieved successfully",
+                    content = @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = WaitlistEntryDto.class))
+                    )
+            )
+    })
+    public ResponseEntity<List<WaitlistEntryDto>> getEntries(@RequestHeader("Authorization") String authorization) {
+
+        User currentUser = getUser(authorization);
+
+        return ResponseEntity.ok(waitlistService.getEntries(currentUser));
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(
+            summary = "Leave the waitlist",
+            description = "Cancels a waiting waitlist entry by ID.",
+            tags = {"Reservation"}
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Waitlist entry cancelled successfully",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = WaitlistEntryDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Waitlist entry not found",
+                    content = @Content
+            )
+    })
+    public ResponseEntity<WaitlistEntryDto> cancelEntry(@PathVariable String id,
+                                                        @RequestHeader("Authorization") String authorization) {
+
+        User currentUser = getUser(authorization);
+
+        return ResponseEntity.ok(waitlistService.cancelEntry(id, currentUser));
+    }
+}
@@ -0,0 +1,66 @@
+package uni.projects.backend.controller.user;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import uni.projects.backend.controller.BaseController;
+import uni.projects.backend.services.auth.TokenService;
+import uni.projects.backend.services.verification.UserVerificationService;
+import uni.projects.backend.web.TokenDto;
+
+import java.util.HashMap;
+
+/**
+ * Issues bearer tokens, which authorize later requests by the ID and role they carry instead of a lookup
+ * of the user by email on every request.
+ */
+@RestController
+@RequestMapping(path = TokenController.TOKEN_PATH)
+@Profile("jwt")
+public class TokenController extends BaseController {
+
+    static final String TOKEN_PATH = UserController.USERS_PATH + "/token";
+
+    @Autowired
+    private TokenService tokenService;
+
+    public TokenController() {
+        super(new UserVerificationService(), new HashMap<>());
+    }
+
+    @PostMapping
+    @Operation(
+            summary = "Issue a token",
+            description = "Issues a bearer token for the user. Send it as 'Bearer <token>' in the Authorization " +
+                    "header of later requests; a token is also accepted to issue a fresh one before it expires.",
+            tags = {"User"},
+            parameters = {
+                    @Parameter(
+                            name = "Authorization",
+                            in = ParameterIn.HEADER,
+                            required = true,
+                            description = "Authorization token (user email or bearer token) to authenticate the user",
+                            schema = @Schema(type = "string")
+                    )
+            }
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Token issued",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = TokenDto.class))),
+            @ApiResponse(responseCode = "401", description = "Invalid, expired or revoked token",
+                    content = @Content),
+            @ApiResponse(responseCode = "403", description = "User not found or already deleted",
+                    content = @Content)
+    })
+    public ResponseEntity<TokenDto> issueToken(@RequestHeader("Authorization") String authorization) {
+        return ResponseEntity.ok(tokenService.issue(getLoadedUser(authorization)));
+    }
+}
@@ -18,9 +18,9 @@ import uni.projects.backend.services.verification.UserVerificationService;
 import uni.projects.backend.services.UserService;
 import uni.projects.backend.web.OfficeDto;
 import uni.projects.backend.web.UserDto;
+import uni.projects.backend.utils.BodyArguments;
 
 import java.util.HashMap;
-import java.util.Map;
 
 /**
  * User Controller
@@ -102,7 +102,7 @@ public class UserController extends BaseController implements UserManagementCont
             ),
     })
     @PostMapping
-    public ResponseEntity<UserDto> registerUser(@RequestBody(required = false) Map<String, Object> body) {
+    public ResponseEntity<UserDto> registerUser(BodyArguments body) {
         UserDto user = deserializeArgument(body, "user");
         UserDto userDto = UserDto.valueFrom(userService.register(user));
         return ResponseEntity.ok(userDto);
@@ -216,7 +216,7 @@ public class UserController extends BaseController implements UserManagementCont
                     content = @Content(mediaType = "application/json"))
     })
     @PutMapping
-    public ResponseEntity<UserDto> updateUser(@RequestBody(required = false) Map<String, Object> body,
+    public ResponseEntity<UserDto> updateUser(BodyArguments body,
                                               @RequestHeader(value = "Authorization") String authorization) {
         User currentUser = getUser(authorization);
         UserDto user = deserializeArgument(body, "user");
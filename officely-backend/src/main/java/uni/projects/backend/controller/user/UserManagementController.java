@@ -4,17 +4,17 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import uni.projects.backend.web.UserDto;
+import uni.projects.backend.utils.BodyArguments;
 
-import java.util.Map;
 
 public interface UserManagementController {
 
-    ResponseEntity<UserDto> registerUser(@RequestBody(required = false) Map<String, Object> body);
+    ResponseEntity<UserDto> registerUser(BodyArguments body);
 
     ResponseEntity<UserDto> getUserData(@RequestHeader(value = "Authorization") String authorization);
 
     ResponseEntity<Boolean> deleteUser(@RequestHeader(value = "Authorization") String authorization);
 
-    ResponseEntity<UserDto> updateUser(@RequestBody(required = false) Map<String, Object> body,
+    ResponseEntity<UserDto> updateUser(BodyArguments body,
                                        @RequestHeader(value = "Authorization") String authorization);
 }
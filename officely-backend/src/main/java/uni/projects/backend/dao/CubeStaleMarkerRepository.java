@@ -0,0 +1,23 @@
+package uni.projects.backend.dao;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import uni.projects.backend.models.analytics.CubeStaleMarker;
+
+import java.time.Instant;
+
+@Repository
+public interface CubeStaleMarkerRepository extends JpaRepository<CubeStaleMarker, String> {
+
+    /**
+     * Removes the marker if it was set at or before the given time, so a marker set while a rebuild was running stays.
+     *
+     * @return 1 if the marker was removed, 0 otherwise
+     */
+    @Modifying
+    @Query("DELETE FROM CubeStaleMarker m WHERE m.name = :name AND m.markedAt <= :before")
+    int clear(@Param("name") String name, @Param("before") Instant before);
+}
@@ -0,0 +1,53 @@
+package uni.projects.backend.dao;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import uni.projects.backend.models.IdempotencyClaim;
+
+import java.time.Instant;
+
+@Repository
+public interface IdempotencyClaimRepository extends JpaRepository<IdempotencyClaim, String> {
+
+    /**
+     * Takes over a claim that has expired, dropping its stored response.
+     *
+     * @return 1 if the claim was taken over, 0 if it is still valid or does not exist
+     */
+    @Modifying
+    @Query("UPDATE IdempotencyClaim c SET c.fingerprint = :fingerprint, c.expiresAt = :expiresAt, " +
+            "c.status = null, c.response = null " +
+            "WHERE c.id = :id AND c.expiresAt < :now")
+    int claimExpired(@Param("id") String id,
+                     @Param("fingerprint") int fingerprint,
+                     @Param("now") Instant now,
+                     @Param("expiresAt") Instant expiresAt);
+
+    /**
+     * Inserts a new claim, failing with a constraint violation if the key is already claimed.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_claim (id, fingerprint, expires_at) VALUES (:id, :fingerprint, :expiresAt)",
+            nativeQuery = true)
+    int insert(@Param("id") String id,
+               @Param("fingerprint") int fingerprint,
+               @Param("expiresAt") Instant expiresAt);
+
+    /**
+     * Stores the response of the request holding the claim and keeps the claim for the full time from now.
+     */
+    @Modifying
+    @Query("UPDATE IdempotencyClaim c SET c.status = :status, c.response = :response, c.expiresAt = :expiresAt " +
+            "WHERE c.id = :id")
+    int complete(@Param("id") String id,
+                 @Param("status") Integer status,
+                 @Param("response") String response,
+                 @Param("expiresAt") Instant expiresAt);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyClaim c WHERE c.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -1,9 +1,21 @@
 package uni.projects.backend.dao;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import uni.projects.backend.models.office.Image;
+import uni.projects.backend.models.office.ImageMetadata;
+
+import java.util.Optional;
 
 @Repository
 public interface ImageRepository extends JpaRepository<Image, Integer> {
+
+    @Query("SELECT i.id AS id, i.contentType AS contentType, i.size AS size, i.sha256 AS sha256 " +
+            "FROM Image i WHERE i.id = :id")
+    Optional<ImageMetadata> findMetadataById(@Param("id") Integer id);
+
+    @Query("SELECT i.data FROM Image i WHERE i.id = :id")
+    Optional<byte[]> findDataById(@Param("id") Integer id);
 }
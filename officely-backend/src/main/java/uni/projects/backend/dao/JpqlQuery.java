@@ -0,0 +1,222 @@
+package uni.projects.backend.dao;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import uni.projects.backend.exceptions.ArgumentException;
+import uni.projects.backend.models.CursorPage;
+import uni.projects.backend.models.PageCursor;
+import uni.projects.backend.models.PageQuery;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Small builder for JPQL queries whose predicates depend on which filter fields are set.
+ * <p>
+ * Only the predicates whose value is set end up in the query, so the database can use the index of a selective
+ * filter instead of evaluating {@code (:p IS NULL OR col = :p)} for every row. The generated JPQL is cached per
+ * query shape (which optional predicates are present, the sort and whether the page seeks past a cursor), so
+ * every request with the same shape reuses the same string and therefore the same Hibernate query plan.
+ */
+class JpqlQuery {
+
+    private static final String SORT_VALUE = "sortValue";
+    private static final int MAX_CACHED_SHAPES = 1024;
+    private static final Map<Shape, String> SHAPES = new ConcurrentHashMap<>();
+
+    private final String select;
+    private final String from;
+    private final String alias;
+    private final List<String> predicates = new ArrayList<>();
+    private final Map<String, Object> parameters = new LinkedHashMap<>();
+    private int predicateCount = 0;
+    private long predicateMask = 0;
+    private String sortProperty;
+    private boolean ascending = true;
+    private boolean seeking = false;
+    private String orderBy;
+
+    /**
+     * @param select the selected expressions, without the SELECT keyword; should be a constant
+     * @param from the FROM clause, without the FROM keyword; should be a constant
+     * @param alias the alias of the root entity
+     */
+    JpqlQuery(String select, String from, String alias) {
+        this.select = select;
+        this.from = from;
+        this.alias = alias;
+    }
+
+    JpqlQuery where(String predicate) {
+        return add(predicate);
+    }
+
+    /**
+     * Adds the predicate only if the value is set.
+     * Optional predicates must be added in the same order on every call for the shape cache to apply.
+     */
+    JpqlQuery where(String predicate, String parameter, Object value) {
+        if (value != null) {
+            add(predicate);
+            parameters.put(parameter, value);
+        } else {
+            predicateCount++;
+        }
+        return this;
+    }
+
+    private JpqlQuery add(String predicate) {
+        if (predicateCount < Long.SIZE) {
+            predicateMask |= 1L << predicateCount;
+        }
+        predicateCount++;
+        predicates.add(predicate);
+        return this;
+    }
+
+    /**
+     * Orders by the sort property and the ID and, if the page has a cursor, starts right after the row it points to.
+     * The sort value is also selected as {@value #SORT_VALUE}, so the cursor of the next page can be built from the last row.
+     *
+     * @param root the entity class the alias refers to
+     */
+    JpqlQuery seek(EntityManager entityManager, Class<?> root, PageQuery pageQuery) {
+        String property = pageQuery.sortProperty();
+        PageCursor cursor = pageQuery.cursor();
+        String direction = pageQuery.ascending() ? "ASC" : "DESC";
+        String operator = pageQuery.ascending() ? ">" : "<";
+        String idPath = alias + ".id";
+        sortProperty = property;
+        ascending = pageQuery.ascending();
+        seeking = cursor != null;
+
+        if (property == null) {
+            if (cursor != null) {
+                predicates.add(idPath + " " + operator + " :seekId");
+                parameters.put("seekId", cursor.id());
+            }
+            orderBy = idPath + " " + direction;
+            return this;
+        }
+
+        String path = alias + "." + property;
+        if (cursor != null) {
+            predicates.add("(" + path + " " + operator + " :seekValue OR (" + path + " = :seekValue AND " + idPath + " " + operator + " :seekId))");
+            parameters.put("seekValue", convert(cursor.value(), propertyType(entityManager, root, property)));
+            parameters.put("seekId", cursor.id());
+        }
+        orderBy = path + " " + direction + ", " + idPath + " " + direction;
+        return this;
+    }
+
+    String toJpql() {
+        if (predicateCount > Long.SIZE) {
+            return buildJpql();
+        }
+        Shape shape = new Shape(select, from, predicateMask, sortProperty, ascending, seeking);
+        String jpql = SHAPES.get(shape);
+        if (jpql == null) {
+            jpql = buildJpql();
+            if (SHAPES.size() < MAX_CACHED_SHAPES) {
+                SHAPES.putIfAbsent(shape, jpql);
+            }
+        }
+        return jpql;
+    }
+
+    private String buildJpql() {
+        StringBuilder jpql = new StringBuilder("SELECT ").append(select);
+        if (sortProperty != null) {
+            jpql.append(", ").append(alias).append('.').append(sortProperty).append(" AS ").append(SORT_VALUE);
+        }
+        jpql.append(" FROM ").append(from);
+        if (!predicates.isEmpty()) {
+            jpql.append(" WHERE ").append(String.join(" AND ", predicates));
+        }
+        if (orderBy != null) {
+            jpql.append(" ORDER BY ").append(orderBy);
+        }
+        return jpql.toString();
+    }
+
+    <T> TypedQuery<T> create(EntityManager entityManager, Class<T> resultClass) {
+        TypedQuery<T> query = entityManager.createQuery(toJpql(), resultClass);
+        parameters.forEach(query::setParameter);
+        return query;
+    }
+
+    /**
+     * Maps the rows of a query built with {@link #seek} and adds the cursor of the next page.
+     *
+     * @param idAlias the alias under which the ID of the root entity is selected
+     */
+    static <T> CursorPage<T> toPage(PageQuery pageQuery, List<Tuple> rows, Function<Tuple, T> mapper, String idAlias) {
+        List<T> content = rows.stream().map(mapper).toList();
+        if (rows.isEmpty()) {
+            return new CursorPage<>(content, null);
+        }
+        Tuple last = rows.get(rows.size() - 1);
+        Object sortValue = pageQuery.sortProperty() != null ? last.get(SORT_VALUE) : null;
+        return new CursorPage<>(content, pageQuery.nextCursor(rows.size(), sortValue, last.get(idAlias, String.class)));
+    }
+
+    /**
+     * @return the page query continuing right after a row of a query built with {@link #seek}
+     */
+    static PageQuery after(PageQuery pageQuery, Tuple row, String idAlias) {
+        Object sortValue = pageQuery.sortProperty() != null ? row.get(SORT_VALUE) : null;
+        return pageQuery.after(sortValue, row.get(idAlias, String.class));
+    }
+
+    private static Class<?> propertyType(EntityManager entityManager, Class<?> root, String property) {
+        ManagedType<?> type = entityManager.getMetamodel().managedType(root);
+        Class<?> javaType = root;
+        for (String part : property.split("\\.")) {
+            Attribute<?, ?> attribute = type.getAttribute(part);
+            javaType = attribute.getJavaType();
+            if (attribute instanceof SingularAttribute<?, ?> singular && singular.getType() instanceof ManagedType<?> managed) {
+                type = managed;
+            }
+        }
+        return javaType;
+    }
+
+    private record Shape(String select, String from, long predicateMask, String sortProperty, boolean ascending, boolean seeking) {
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object convert(String value, Class<?> type) {
+        if (value == null) {
+            throw new ArgumentException("Invalid cursor");
+        }
+        try {
+            if (type == String.class) {
+                return value;
+            } else if (type == double.class || type == Double.class) {
+                return Double.valueOf(value);
+            } else if (type == long.class || type == Long.class) {
+                return Long.valueOf(value);
+            } else if (type == int.class || type == Integer.class) {
+                return Integer.valueOf(value);
+            } else if (type == boolean.class || type == Boolean.class) {
+                return Boolean.valueOf(value);
+            } else if (type == LocalDate.class) {
+                return LocalDate.parse(value);
+            } else if (type.isEnum()) {
+                return Enum.valueOf((Class<Enum>) type, value);
+            }
+        } catch (RuntimeException e) {
+            throw new ArgumentException("Invalid cursor");
+        }
+        throw new IllegalStateException("Unsupported sort property type " + type);
+    }
+}
@@ -0,0 +1,26 @@
+package uni.projects.backend.dao;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import uni.projects.backend.models.analytics.OfficeDayKey;
+import uni.projects.backend.models.analytics.OfficeDayStatistic;
+
+
+@Repository
+public interface OfficeDayStatisticRepository extends JpaRepository<OfficeDayStatistic, OfficeDayKey>,
+        OfficeDayStatisticRepositoryCustom {
+
+    @Modifying
+    @Query("DELETE FROM OfficeDayStatistic s WHERE s.id.officeId = :officeId")
+    int deleteStatisticsOfOffice(@Param("officeId") String officeId);
+
+    /**
+     * Removes the cells of offices that no longer have any reservation.
+     */
+    @Modifying
+    @Query("DELETE FROM OfficeDayStatistic s WHERE s.id.officeId NOT IN (SELECT DISTINCT r.office.id FROM Reservation r)")
+    int deleteStatisticsOfOfficesWithoutReservations();
+}
@@ -0,0 +1,24 @@
+package uni.projects.backend.dao;
+
+import jakarta.persistence.Tuple;
+import uni.projects.backend.models.analytics.RollupDimension;
+import uni.projects.backend.models.analytics.RollupPeriod;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface OfficeDayStatisticRepositoryCustom {
+
+    /**
+     * Sums the cube between two dates (inclusive) per dimension value, period and payment type.
+     *
+     * @return tuples of {@code dimension}, {@code year}, {@code month} (null per year), {@code paymentType},
+     *         {@code bookedDays}, {@code revenue} and {@code cancellations}, ordered by dimension and period
+     */
+    List<Tuple> rollup(RollupDimension dimension, RollupPeriod period, LocalDate from, LocalDate to);
+
+    /**
+     * @return tuples of {@code dimension} and {@code offices}, the number of offices not deleted per dimension value
+     */
+    List<Tuple> countOffices(RollupDimension dimension);
+}
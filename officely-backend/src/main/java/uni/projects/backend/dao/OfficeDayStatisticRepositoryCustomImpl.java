@@ -0,0 +1,44 @@
+package uni.projects.backend.dao;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import uni.projects.backend.models.analytics.RollupDimension;
+import uni.projects.backend.models.analytics.RollupPeriod;
+
+import java.time.LocalDate;
+import java.util.List;
+
+class OfficeDayStatisticRepositoryCustomImpl implements OfficeDayStatisticRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Tuple> rollup(RollupDimension dimension, RollupPeriod period, LocalDate from, LocalDate to) {
+        String buckets = period == RollupPeriod.MONTH
+                ? "YEAR(s.id.date), MONTH(s.id.date)"
+                : "YEAR(s.id.date)";
+        String bucketColumns = period == RollupPeriod.MONTH
+                ? "YEAR(s.id.date) AS year, MONTH(s.id.date) AS month"
+                : "YEAR(s.id.date) AS year";
+        String jpql = "SELECT " + dimension.getPath() + " AS dimension, " + bucketColumns + ", " +
+                "s.id.paymentType AS paymentType, SUM(s.bookedDays) AS bookedDays, SUM(s.revenue) AS revenue, " +
+                "SUM(s.cancellations) AS cancellations " +
+                "FROM OfficeDayStatistic s JOIN Office o ON o.id = s.id.officeId " +
+                "WHERE s.id.date >= :from AND s.id.date <= :to " +
+                "GROUP BY " + dimension.getPath() + ", " + buckets + ", s.id.paymentType " +
+                "ORDER BY " + dimension.getPath() + ", " + buckets;
+        return entityManager.createQuery(jpql, Tuple.class)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .getResultList();
+    }
+
+    @Override
+    public List<Tuple> countOffices(RollupDimension dimension) {
+        String jpql = "SELECT " + dimension.getPath() + " AS dimension, COUNT(o) AS offices " +
+                "FROM Office o WHERE o.deleted = false GROUP BY " + dimension.getPath();
+        return entityManager.createQuery(jpql, Tuple.class).getResultList();
+    }
+}
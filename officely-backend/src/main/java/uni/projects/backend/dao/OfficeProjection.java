@@ -0,0 +1,72 @@
+package uni.projects.backend.dao;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import uni.projects.backend.web.AmenityDto;
+import uni.projects.backend.web.ImageDto;
+import uni.projects.backend.web.OfficeDto;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds {@link OfficeDto}s from tuple queries without loading {@code Office} entities.
+ * <p>
+ * The office columns are selected by the listing query itself (office alias {@code o}, owner alias {@code ow}),
+ * the amenities and image IDs of all offices on the page are then loaded by one query each.
+ * Images are selected by ID only, so their data is never read.
+ */
+final class OfficeProjection {
+
+    static final String COLUMNS = "o.id AS officeId, o.name AS officeName, o.metricArea AS metricArea, o.floor AS floor, " +
+            "o.roomNumber AS roomNumber, o.country AS country, o.city AS city, o.postalCode AS postalCode, " +
+            "o.address AS address, o.x AS x, o.y AS y, o.price AS price, " +
+            "ow.email AS ownerEmail, ow.phoneNumber AS ownerPhoneNumber";
+
+    private final Map<String, List<AmenityDto>> amenities = new HashMap<>();
+    private final Map<String, List<ImageDto>> images = new HashMap<>();
+
+    /**
+     * Loads the amenities and image IDs of the given offices.
+     */
+    OfficeProjection(EntityManager entityManager, Collection<String> officeIds) {
+        if (officeIds.isEmpty()) {
+            return;
+        }
+        entityManager.createQuery("SELECT o.id, a.id, a.name FROM Office o JOIN o.amenities a WHERE o.id IN :officeIds", Object[].class)
+                .setParameter("officeIds", officeIds)
+                .getResultList()
+                .forEach(row -> amenities.computeIfAbsent((String) row[0], id -> new ArrayList<>())
+                        .add(new AmenityDto((Integer) row[1], (String) row[2])));
+        entityManager.createQuery("SELECT o.id, i.id FROM Office o JOIN o.images i WHERE o.id IN :officeIds", Object[].class)
+                .setParameter("officeIds", officeIds)
+                .getResultList()
+                .forEach(row -> images.computeIfAbsent((String) row[0], id -> new ArrayList<>())
+                        .add(new ImageDto((Integer) row[1], null)));
+    }
+
+    OfficeDto toDto(Tuple tuple) {
+        String officeId = tuple.get("officeId", String.class);
+        return new OfficeDto(
+                officeId,
+                tuple.get("officeName", String.class),
+                tuple.get("metricArea", Double.class),
+                tuple.get("floor", Integer.class),
+                tuple.get("roomNumber", Integer.class),
+                tuple.get("country", String.class),
+                tuple.get("city", String.class),
+                tuple.get("postalCode", String.class),
+                tuple.get("address", String.class),
+                tuple.get("x", Double.class),
+                tuple.get("y", Double.class),
+                tuple.get("price", Double.class),
+                amenities.getOrDefault(officeId, List.of()),
+                images.getOrDefault(officeId, List.of()),
+                tuple.get("ownerEmail", String.class),
+                tuple.get("ownerPhoneNumber", String.class)
+        );
+    }
+}
@@ -0,0 +1,27 @@
+package uni.projects.backend.dao;
+
+import uni.projects.backend.models.CursorPage;
+import uni.projects.backend.models.PageQuery;
+import uni.projects.backend.models.office.OfficeFilter;
+import uni.projects.backend.web.OfficeDto;
+
+import java.util.Collection;
+import java.util.Set;
+
+public interface OfficeRepositoryCustom {
+
+    /**
+     * Finds one page of offices matching the attribute filters, projected directly into DTOs.
+     * Availability and distance are resolved by the in-memory indexes beforehand and passed in as ID sets.
+     * The excluded offices are skipped while reading the rows instead of being sent to the database, so the
+     * size of the query does not grow with the number of booked offices.
+     *
+     * @param officeFilter the filter criteria
+     * @param candidateIds if not null, only these offices are considered
+     * @param excludedIds if not null, these offices are skipped
+     * @param pageQuery the sort and the page or cursor
+     * @return the offices with their base prices
+     */
+    CursorPage<OfficeDto> findOfficePage(OfficeFilter officeFilter, Collection<String> candidateIds,
+                                         Set<String> excludedIds, PageQuery pageQuery);
+}
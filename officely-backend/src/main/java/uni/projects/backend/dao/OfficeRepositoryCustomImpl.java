@@ -0,0 +1,99 @@
+package uni.projects.backend.dao;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import uni.projects.backend.models.CursorPage;
+import uni.projects.backend.models.PageQuery;
+import uni.projects.backend.models.office.Office;
+import uni.projects.backend.models.office.OfficeFilter;
+import uni.projects.backend.web.OfficeDto;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+class OfficeRepositoryCustomImpl implements OfficeRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Rows read per query while skipping excluded offices.
+     */
+    private static final int MIN_SCAN_BATCH = 100;
+
+    @Override
+    public CursorPage<OfficeDto> findOfficePage(OfficeFilter officeFilter, Collection<String> candidateIds,
+                                                Set<String> excludedIds, PageQuery pageQuery) {
+        List<Tuple> rows = excludedIds == null || excludedIds.isEmpty()
+                ? select(officeFilter, candidateIds, pageQuery)
+                        .setFirstResult(pageQuery.offset())
+                        .setMaxResults(pageQuery.pageSize())
+                        .getResultList()
+                : selectSkipping(officeFilter, candidateIds, excludedIds, pageQuery);
+
+        OfficeProjection projection = new OfficeProjection(entityManager,
+                rows.stream().map(row -> row.get("officeId", String.class)).toList());
+        return JpqlQuery.toPage(pageQuery, rows, projection::toDto, "officeId");
+    }
+
+    /**
+     * Reads the matching rows in sort order, in batches that each seek past the last row read, and keeps the rows of
+     * offices that are not excluded until the page is full. A page number skips that many kept rows.
+     */
+    private List<Tuple> selectSkipping(OfficeFilter officeFilter, Collection<String> candidateIds,
+                                       Set<String> excludedIds, PageQuery pageQuery) {
+        int batchSize = Math.max(pageQuery.pageSize(), MIN_SCAN_BATCH);
+        int skipped = pageQuery.offset();
+        List<Tuple> rows = new ArrayList<>(pageQuery.pageSize());
+        PageQuery batchQuery = pageQuery;
+        while (true) {
+            List<Tuple> batch = select(officeFilter, candidateIds, batchQuery)
+                    .setMaxResults(batchSize)
+                    .getResultList();
+            for (Tuple row : batch) {
+                if (excludedIds.contains(row.get("officeId", String.class))) {
+                    continue;
+                }
+                if (skipped > 0) {
+                    skipped--;
+                    continue;
+                }
+                rows.add(row);
+                if (rows.size() == pageQuery.pageSize()) {
+                    return rows;
+                }
+            }
+            if (batch.size() < batchSize) {
+                return rows;
+            }
+            batchQuery = JpqlQuery.after(pageQuery, batch.get(batch.size() - 1), "officeId");
+        }
+    }
+
+    private TypedQuery<Tuple> select(OfficeFilter officeFilter, Collection<String> candidateIds, PageQuery pageQuery) {
+        JpqlQuery query = new JpqlQuery(OfficeProjection.COLUMNS, "Office o JOIN o.owner ow", "o")
+                .where("o.deleted = false")
+                .where("o.id IN :candidateIds", "candidateIds", candidateIds);
+        applyFilter(query, officeFilter);
+        query.seek(entityManager, Office.class, pageQuery);
+        return query.create(entityManager, Tuple.class);
+    }
+
+    static void applyFilter(JpqlQuery query, OfficeFilter filter) {
+        if (filter == null) {
+            return;
+        }
+        query.where("o.price >= :pricePerDayMin", "pricePerDayMin", filter.getPricePerDayMin())
+                .where("o.price <= :pricePerDayMax", "pricePerDayMax", filter.getPricePerDayMax())
+                .where("o.metricArea >= :areaMin", "areaMin", filter.getAreaMin())
+                .where("o.metricArea <= :areaMax", "areaMax", filter.getAreaMax())
+                .where("o.country = :country", "country", filter.getCountry())
+                .where("o.city = :city", "city", filter.getCity())
+                .where("o.postalCode = :postalCode", "postalCode", filter.getPostalCode())
+                .where("o.address LIKE :address", "address", filter.getAddress() != null ? "%" + filter.getAddress() + "%" : null);
+    }
+}
@@ -3,56 +3,43 @@ package uni.projects.backend.dao;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import uni.projects.backend.events.ReservationSnapshot;
 import uni.projects.backend.models.user.User;
 import uni.projects.backend.models.reservation.Reservation;
-import uni.projects.backend.models.reservation.ReservationFilter;
+import uni.projects.backend.models.reservation.ReservationHold;
+import uni.projects.backend.models.reservation.ReservationPeriod;
+import uni.projects.backend.models.reservation.ReservationStatus;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ReservationRepository extends JpaRepository<Reservation, String> {
+public interface ReservationRepository extends JpaRepository<Reservation, String>, ReservationRepositoryCustom {
 
+    /**
+     * The charged days of a reservation, computed from its dates.
+     */
+    String DAYS = "((r.endTime - r.startTime) BY DAY)";
+
+    /**
+     * The total price of a reservation as {@link Reservation} computes it, rounded to two decimal places.
+     */
+    String TOTAL_PRICE = "(CASE WHEN " + DAYS + " > 0 AND r.pricePerDay > 0 " +
+            "THEN ROUND(" + DAYS + " * r.pricePerDay * r.priceMultiplier, 2) ELSE 0 END)";
+
+    @EntityGraph(Reservation.WITH_OFFICE)
     List<Reservation> findAllByUser(User user, Sort sort);
 
     Optional<Reservation> findByIdAndUser(String id, User user);
 
-    @Query("SELECT r FROM Reservation r WHERE r.user = :user " +
-            "AND (:#{#filter.paid} IS NULL OR r.paid = :#{#filter.paid}) " +
-            "AND (:#{#filter.priceTotalMin} IS NULL OR r.pricePerDay * (r.endTime - r.startTime) >= :#{#filter.priceTotalMin}) " +
-            "AND (:#{#filter.priceTotalMax} IS NULL OR r.pricePerDay * (r.endTime - r.startTime) <= :#{#filter.priceTotalMax}) " +
-            "AND (:#{#filter.pricePerDayMin} IS NULL OR r.pricePerDay >= :#{#filter.pricePerDayMin}) " +
-            "AND (:#{#filter.pricePerDayMax} IS NULL OR r.pricePerDay <= :#{#filter.pricePerDayMax}) " +
-            "AND (:#{#filter.paymentType} IS NULL OR r.paymentType = :#{#filter.paymentType}) " +
-            "AND (:#{#filter.status} IS NULL OR r.status = :#{#filter.status}) " +
-            "AND (:#{#filter.bookedAtFrom} IS NULL OR r.bookedAt >= :#{#filter.bookedAtFrom}) " +
-            "AND (:#{#filter.bookedAtTo} IS NULL OR r.bookedAt <= :#{#filter.bookedAtTo}) " +
-            "AND (:#{#filter.startTimeFrom} IS NULL OR r.startTime >= :#{#filter.startTimeFrom}) " +
-            "AND (:#{#filter.startTimeTo} IS NULL OR r.startTime <= :#{#filter.startTimeTo}) " +
-            "AND (:#{#filter.endTimeFrom} IS NULL OR r.endTime >= :#{#filter.endTimeFrom}) " +
-            "AND (:#{#filter.endTimeTo} IS NULL OR r.endTime <= :#{#filter.endTimeTo}) ")
-    List<Reservation> findAllByUserWithFilters(@Param("user") User user, Pageable pageable, @Param("filter") ReservationFilter filter);
-
-    @Query("SELECT r FROM Reservation r WHERE " +
-            "(:#{#filter.paid} IS NULL OR r.paid = :#{#filter.paid}) " +
-            "AND (:#{#filter.priceTotalMin} IS NULL OR r.pricePerDay * (r.endTime - r.startTime) >= :#{#filter.priceTotalMin}) " +
-            "AND (:#{#filter.priceTotalMax} IS NULL OR r.pricePerDay * (r.endTime - r.startTime) <= :#{#filter.priceTotalMax}) " +
-            "AND (:#{#filter.pricePerDayMin} IS NULL OR r.pricePerDay >= :#{#filter.pricePerDayMin}) " +
-            "AND (:#{#filter.pricePerDayMax} IS NULL OR r.pricePerDay <= :#{#filter.pricePerDayMax}) " +
-            "AND (:#{#filter.paymentType} IS NULL OR r.paymentType = :#{#filter.paymentType}) " +
-            "AND (:#{#filter.status} IS NULL OR r.status = :#{#filter.status}) " +
-            "AND (:#{#filter.bookedAtFrom} IS NULL OR r.bookedAt >= :#{#filter.bookedAtFrom}) " +
-            "AND (:#{#filter.bookedAtTo} IS NULL OR r.bookedAt <= :#{#filter.bookedAtTo}) " +
-            "AND (:#{#filter.startTimeFrom} IS NULL OR r.startTime >= :#{#filter.startTimeFrom}) " +
-            "AND (:#{#filter.startTimeTo} IS NULL OR r.startTime <= :#{#filter.startTimeTo}) " +
-            "AND (:#{#filter.endTimeFrom} IS NULL OR r.endTime >= :#{#filter.endTimeFrom}) " +
-            "AND (:#{#filter.endTimeTo} IS NULL OR r.endTime <= :#{#filter.endTimeTo}) ")
-    List<Reservation> findAllWithFilters(Pageable pageable, @Param("filter") ReservationFilter filter);
-
     @Query("SELECT CASE WHEN COUNT(r) > 0 THEN true ELSE false END FROM Reservation r " +
             "WHERE r.office.id = :officeId " +
             "AND r.status != 'CANCELLED' " +
@@ -81,4 +68,127 @@ public interface ReservationRepository extends JpaRepository<Reservation, String
                                                            @Param("startTime") LocalDate startTime,
                                                            @Param("endTime") LocalDate endTime);
 
+    @Query("SELECT DISTINCT r.office.id FROM Reservation r " +
+            "WHERE r.status != 'CANCELLED' " +
+            "AND ((r.startTime <= :endTime AND r.endTime >= :startTime))")
+    List<String> findBusyOfficeIds(@Param("startTime") LocalDate startTime,
+                                   @Param("endTime") LocalDate endTime);
+
+    /**
+     * Finds the offices, not deleted, with a reservation inserted or updated at or after the given time.
+     */
+    @Query("SELECT DISTINCT r.office.id FROM Reservation r " +
+            "WHERE r.updatedAt >= :since " +
+            "AND r.office.deleted = false")
+    List<String> findOfficeIdsChangedSince(@Param("since") Instant since);
+
+    @Query("SELECT r.id AS id, r.office.id AS officeId, r.startTime AS startTime, r.endTime AS endTime " +
+            "FROM Reservation r " +
+            "WHERE r.status != 'CANCELLED' " +
+            "AND r.endTime >= :from")
+    List<ReservationPeriod> findActivePeriodsEndingFrom(@Param("from") LocalDate from);
+
+    @Query("SELECT r.id AS id, r.office.id AS officeId, r.startTime AS startTime, r.endTime AS endTime " +
+            "FROM Reservation r " +
+            "WHERE r.status != 'CANCELLED' " +
+            "AND r.office.id = :officeId " +
+            "AND r.endTime >= :from")
+    List<ReservationPeriod> findActivePeriodsByOfficeId(@Param("officeId") String officeId,
+                                                        @Param("from") LocalDate from);
+
+    @Query("SELECT r.id AS id, r.office.id AS officeId, r.startTime AS startTime, r.endTime AS endTime " +
+            "FROM Reservation r " +
+            "WHERE r.status != 'CANCELLED' " +
+            "AND r.office.id = :officeId " +
+            "AND r.startTime <= :endTime AND r.endTime >= :startTime " +
+            "ORDER BY r.startTime")
+    List<ReservationPeriod> findActivePeriodsByOfficeIdBetween(@Param("officeId") String officeId,
+                                                               @Param("startTime") LocalDate startTime,
+                                                               @Param("endTime") LocalDate endTime);
+
+    @Query("SELECT r.id AS id, r.office.id AS officeId, r.startTime AS startTime, r.endTime AS endTime " +
+            "FROM Reservation r " +
+            "WHERE r.status != 'CANCELLED' " +
+            "AND r.office.id IN :officeIds " +
+            "AND r.startTime <= :endTime AND r.endTime >= :startTime")
+    List<ReservationPeriod> findActivePeriodsByOfficeIdInBetween(@Param("officeIds") Collection<String> officeIds,
+                                                                 @Param("startTime") LocalDate startTime,
+                                                                 @Param("endTime") LocalDate endTime);
+
+    @Query("SELECT r.id FROM Reservation r WHERE r.status IN :statuses AND r.endTime < :date")
+    List<String> findIdsByStatusInAndEndTimeBefore(@Param("statuses") Collection<ReservationStatus> statuses,
+                                                   @Param("date") LocalDate date,
+                                                   Pageable pageable);
+
+    @Query("SELECT r.id FROM Reservation r WHERE r.status IN :statuses AND r.startTime <= :date AND r.endTime >= :date")
+    List<String> findIdsByStatusInAndRunningOn(@Param("statuses") Collection<ReservationStatus> statuses,
+                                               @Param("date") LocalDate date,
+                                               Pageable pageable);
+
+    /**
+     * Moves reservations to a new status, skipping those no longer in one of the expected statuses. The version is
+     * incremented, so a concurrent save of a reservation loaded before the update fails instead of restoring its status.
+     *
+     * @return the number of reservations updated
+     */
+    @Modifying
+    @Query("UPDATE Reservation r SET r.status = :status, r.version = r.version + 1, r.updatedAt = INSTANT " +
+            "WHERE r.id IN :ids AND r.status IN :expected")
+    int updateStatus(@Param("ids") Collection<String> ids,
+                     @Param("expected") Collection<ReservationStatus> expected,
+                     @Param("status") ReservationStatus status);
+
+    /**
+     * Finds reservations whose stored duration or total price does not match their dates and prices,
+     * in the order of their IDs, starting after the given ID.
+     */
+    @Query("SELECT r.id FROM Reservation r " +
+            "WHERE r.id > :after " +
+            "AND (r.duration <> " + DAYS + " OR ABS(r.totalPrice - " + TOTAL_PRICE + ") > 0.005) " +
+            "ORDER BY r.id")
+    List<String> findIdsWithStalePriceAfter(@Param("after") String after, Pageable pageable);
+
+    /**
+     * Recomputes the stored duration and total price from the dates, the price per day and the multiplier,
+     * as {@link Reservation} does when they are set.
+     *
+     * @return the number of reservations updated
+     */
+    @Modifying
+    @Query("UPDATE Reservation r SET r.duration = " + DAYS + ", r.totalPrice = " + TOTAL_PRICE +
+            ", r.version = r.version + 1 WHERE r.id IN :ids")
+    int recalculatePrices(@Param("ids") Collection<String> ids);
+
+    /**
+     * Reads reservations as snapshots in the order of their IDs, starting after the given ID.
+     */
+    @Query("SELECT new uni.projects.backend.events.ReservationSnapshot(r.id, r.office.id, r.user.id, r.startTime, " +
+            "r.endTime, r.status, r.paymentType, r.totalPrice, r.duration, r.paid, r.holdExpiresAt) " +
+            "FROM Reservation r WHERE r.id > :after ORDER BY r.id")
+    List<ReservationSnapshot> findSnapshotsAfter(@Param("after") String after, Pageable pageable);
+
+    /**
+     * Reads the reservations of one office as snapshots.
+     */
+    @Query("SELECT new uni.projects.backend.events.ReservationSnapshot(r.id, r.office.id, r.user.id, r.startTime, " +
+            "r.endTime, r.status, r.paymentType, r.totalPrice, r.duration, r.paid, r.holdExpiresAt) " +
+            "FROM Reservation r WHERE r.office.id = :officeId")
+    List<ReservationSnapshot> findSnapshotsByOfficeId(@Param("officeId") String officeId);
+
+    /**
+     * Finds the IDs of the offices that have reservations, in order, starting after the given ID.
+     */
+    @Query("SELECT DISTINCT r.office.id FROM Reservation r WHERE r.office.id > :after ORDER BY r.office.id")
+    List<String> findReservedOfficeIdsAfter(@Param("after") String after, Pageable pageable);
+
+    @Query("SELECT r.id AS id, r.holdExpiresAt AS holdExpiresAt FROM Reservation r " +
+            "WHERE r.holdExpiresAt IS NOT NULL AND r.paid = false AND r.status IN :statuses")
+    List<ReservationHold> findHolds(@Param("statuses") Collection<ReservationStatus> statuses);
+
+    @Query("SELECT r.id FROM Reservation r " +
+            "WHERE r.holdExpiresAt < :now AND r.paid = false AND r.status IN :statuses")
+    List<String> findIdsWithHoldExpiredBefore(@Param("statuses") Collection<ReservationStatus> statuses,
+                                              @Param("now") Instant now,
+                                              Pageable pageable);
 }
+
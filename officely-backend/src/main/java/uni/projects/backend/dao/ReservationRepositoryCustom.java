@@ -0,0 +1,33 @@
+package uni.projects.backend.dao;
+
+import uni.projects.backend.models.CursorPage;
+import uni.projects.backend.models.PageQuery;
+import uni.projects.backend.models.reservation.ReservationExportRow;
+import uni.projects.backend.models.reservation.ReservationFilter;
+import uni.projects.backend.models.user.User;
+import uni.projects.backend.web.ReservationDto;
+
+import java.util.List;
+
+public interface ReservationRepositoryCustom {
+
+    /**
+     * Finds one page of filtered reservations, projected directly into DTOs.
+     *
+     * @param user the owner of the reservations, or null for all users
+     * @param filter the filter criteria, may be null
+     * @param pageQuery the sort and the page or cursor
+     * @return the reservations of the page
+     */
+    CursorPage<ReservationDto> findReservationPage(User user, ReservationFilter filter, PageQuery pageQuery);
+
+    /**
+     * Finds one page of filtered reservations for an export, ordered by ID and starting right after the given ID.
+     * Rows are not attached to the persistence context.
+     *
+     * @param filter the filter criteria, may be null
+     * @param afterId the ID of the last row of the previous page, or null for the first page
+     * @param pageSize the maximum number of rows
+     */
+    List<ReservationExportRow> findExportPage(ReservationFilter filter, String afterId, int pageSize);
+}
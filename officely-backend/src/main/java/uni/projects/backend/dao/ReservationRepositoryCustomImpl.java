@@ -0,0 +1,141 @@
+package uni.projects.backend.dao;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import org.hibernate.jpa.HibernateHints;
+import uni.projects.backend.exceptions.ArgumentException;
+import uni.projects.backend.models.CursorPage;
+import uni.projects.backend.models.PageCursor;
+import uni.projects.backend.models.PageQuery;
+import uni.projects.backend.models.reservation.PaymentType;
+import uni.projects.backend.models.reservation.Reservation;
+import uni.projects.backend.models.reservation.ReservationExportRow;
+import uni.projects.backend.models.reservation.ReservationFilter;
+import uni.projects.backend.models.reservation.ReservationStatus;
+import uni.projects.backend.models.user.User;
+import uni.projects.backend.web.OfficeDto;
+import uni.projects.backend.web.ReservationDto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+class ReservationRepositoryCustomImpl implements ReservationRepositoryCustom {
+
+    private static final String COLUMNS = "r.id AS id, r.startTime AS startTime, r.endTime AS endTime, r.bookedAt AS bookedAt, " +
+            "r.duration AS duration, r.totalPrice AS totalPrice, r.status AS status, r.paymentType AS paymentType, " +
+            "r.pricePerDay AS pricePerDay, r.priceMultiplier AS priceMultiplier, r.comments AS comments, " +
+            "r.paid AS paid, r.paidAt AS paidAt, " + OfficeProjection.COLUMNS;
+
+    private static final String EXPORT_COLUMNS = "r.id AS id, o.id AS officeId, o.name AS officeName, o.country AS country, " +
+            "o.city AS city, u.email AS userEmail, r.startTime AS startTime, r.endTime AS endTime, r.bookedAt AS bookedAt, " +
+            "r.duration AS duration, r.pricePerDay AS pricePerDay, r.priceMultiplier AS priceMultiplier, " +
+            "r.totalPrice AS totalPrice, r.status AS status, r.paymentType AS paymentType, r.paid AS paid, r.paidAt AS paidAt";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public CursorPage<ReservationDto> findReservationPage(User user, ReservationFilter filter, PageQuery pageQuery) {
+        JpqlQuery query = new JpqlQuery(COLUMNS, "Reservation r JOIN r.office o JOIN o.owner ow", "r")
+                .where("r.user = :user", "user", user);
+        applyFilter(query, filter);
+        query.seek(entityManager, Reservation.class, pageQuery);
+
+        List<Tuple> rows = query.create(entityManager, Tuple.class)
+                .setFirstResult(pageQuery.offset())
+                .setMaxResults(pageQuery.pageSize())
+                .getResultList();
+
+        OfficeProjection projection = new OfficeProjection(entityManager,
+                rows.stream().map(row -> row.get("officeId", String.class)).distinct().toList());
+        return JpqlQuery.toPage(pageQuery, rows, row -> toDto(row, projection.toDto(row)), "id");
+    }
+
+    @Override
+    public List<ReservationExportRow> findExportPage(ReservationFilter filter, String afterId, int pageSize) {
+        JpqlQuery query = new JpqlQuery(EXPORT_COLUMNS, "Reservation r JOIN r.office o JOIN r.user u", "r");
+        applyFilter(query, filter);
+        PageCursor cursor = afterId != null ? new PageCursor(null, true, null, afterId) : null;
+        query.seek(entityManager, Reservation.class, new PageQuery(null, null, true, 0, pageSize, cursor));
+
+        return query.create(entityManager, Tuple.class)
+                .setMaxResults(pageSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultList()
+                .stream()
+                .map(ReservationRepositoryCustomImpl::toExportRow)
+                .toList();
+    }
+
+    static void applyFilter(JpqlQuery query, ReservationFilter filter) {
+        if (filter == null) {
+            return;
+        }
+        query.where("r.paid = :paid", "paid", filter.getPaid())
+                .where("r.totalPrice >= :priceTotalMin", "priceTotalMin", filter.getPriceTotalMin())
+                .where("r.totalPrice <= :priceTotalMax", "priceTotalMax", filter.getPriceTotalMax())
+                .where("r.pricePerDay >= :pricePerDayMin", "pricePerDayMin", filter.getPricePerDayMin())
+                .where("r.pricePerDay <= :pricePerDayMax", "pricePerDayMax", filter.getPricePerDayMax())
+                .where("r.paymentType = :paymentType", "paymentType", parse(PaymentType.class, filter.getPaymentType()))
+                .where("r.status = :status", "status", parse(ReservationStatus.class, filter.getStatus()))
+                .where("r.bookedAt >= :bookedAtFrom", "bookedAtFrom", filter.getBookedAtFrom())
+                .where("r.bookedAt <= :bookedAtTo", "bookedAtTo", filter.getBookedAtTo())
+                .where("r.startTime >= :startTimeFrom", "startTimeFrom", filter.getStartTimeFrom())
+                .where("r.startTime <= :startTimeTo", "startTimeTo", filter.getStartTimeTo())
+                .where("r.endTime >= :endTimeFrom", "endTimeFrom", filter.getEndTimeFrom())
+                .where("r.endTime <= :endTimeTo", "endTimeTo", filter.getEndTimeTo());
+    }
+
+    private static ReservationDto toDto(Tuple row, OfficeDto office) {
+        return new ReservationDto(
+                row.get("id", String.class),
+                office,
+                row.get("startTime", LocalDate.class),
+                row.get("endTime", LocalDate.class),
+                row.get("bookedAt", LocalDate.class),
+                row.get("duration", Long.class),
+                row.get("totalPrice", Double.class),
+                row.get("status", ReservationStatus.class),
+                row.get("paymentType", PaymentType.class),
+                row.get("pricePerDay", Double.class),
+                row.get("priceMultiplier", Double.class),
+                row.get("comments", String.class),
+                row.get("paid", Boolean.class),
+                row.get("paidAt", LocalDate.class)
+        );
+    }
+
+    private static ReservationExportRow toExportRow(Tuple row) {
+        return new ReservationExportRow(
+                row.get("id", String.class),
+                row.get("officeId", String.class),
+                row.get("officeName", String.class),
+                row.get("country", String.class),
+                row.get("city", String.class),
+                row.get("userEmail", String.class),
+                row.get("startTime", LocalDate.class),
+                row.get("endTime", LocalDate.class),
+                row.get("bookedAt", LocalDate.class),
+                row.get("duration", Long.class),
+                row.get("pricePerDay", Double.class),
+                row.get("priceMultiplier", Double.class),
+                row.get("totalPrice", Double.class),
+                row.get("status", ReservationStatus.class),
+                row.get("paymentType", PaymentType.class),
+                row.get("paid", Boolean.class),
+                row.get("paidAt", LocalDate.class)
+        );
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, value);
+        } catch (IllegalArgumentException e) {
+            throw new ArgumentException("Invalid " + type.getSimpleName() + " " + value);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import uni.projects.backend.models.TrafficStatistic;
+import uni.projects.backend.models.VisitorMoments;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -14,6 +15,7 @@ import java.util.Optional;
 public interface TrafficStatisticRepository extends JpaRepository<TrafficStatistic, String> {
 
     List<TrafficStatistic> findAllByDateBetween(LocalDate dateAfter, LocalDate dateBefore);
+    List<TrafficStatistic> findAllByDateGreaterThanEqual(LocalDate date);
     Optional<TrafficStatistic> findByDate(LocalDate date);
 
     @Query("SELECT AVG(ts.visitors) FROM TrafficStatistic ts WHERE ts.date >= :startDate")
@@ -22,6 +24,9 @@ public interface TrafficStatisticRepository extends JpaRepository<TrafficStatist
     @Query("SELECT STDDEV(ts.visitors) FROM TrafficStatistic ts WHERE ts.date >= :startDate")
     Double calculateStandardDeviationFromDate(@Param("startDate") LocalDate startDate);
 
+    @Query("SELECT AVG(ts.visitors) AS average, STDDEV(ts.visitors) AS standardDeviation FROM TrafficStatistic ts WHERE ts.date >= :startDate")
+    VisitorMoments calculateVisitorMomentsFromDate(@Param("startDate") LocalDate startDate);
+
     @Query("SELECT ts.visitors FROM TrafficStatistic ts WHERE ts.date = :date")
     Optional<Integer> findVisitorsByDate(@Param("date") LocalDate date);
 
@@ -0,0 +1,46 @@
+package uni.projects.backend.dao;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import uni.projects.backend.models.reservation.WaitlistEntry;
+import uni.projects.backend.models.reservation.WaitlistStatus;
+import uni.projects.backend.models.user.User;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, String> {
+
+    List<WaitlistEntry> findAllByUser(User user, Sort sort);
+
+    Optional<WaitlistEntry> findByIdAndUser(String id, User user);
+
+    List<WaitlistEntry> findAllByStatus(WaitlistStatus status);
+
+    long countByUserAndStatus(User user, WaitlistStatus status);
+
+    @Query("SELECT w.id FROM WaitlistEntry w WHERE w.status = 'WAITING' AND w.startTime < :date")
+    List<String> findWaitingIdsStartingBefore(@Param("date") LocalDate date);
+
+    /**
+     * Moves waiting entries to a new status, skipping those that are no longer waiting.
+     *
+     * @return the number of entries updated
+     */
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = :status, w.reservationId = :reservationId " +
+            "WHERE w.id IN :ids AND w.status = 'WAITING'")
+    int closeWaiting(@Param("ids") List<String> ids,
+                     @Param("status") WaitlistStatus status,
+                     @Param("reservationId") String reservationId);
+
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.reservationId = :reservationId WHERE w.id = :id")
+    int updateReservationId(@Param("id") String id, @Param("reservationId") String reservationId);
+}
@@ -0,0 +1,14 @@
+package uni.projects.backend.events;
+
+/**
+ * Published by the office service whenever an office is created, updated or deleted.
+ *
+ * @param previous the state before the change, or null when the office was created
+ * @param current the state after the change
+ */
+public record OfficeChangedEvent(OfficeSnapshot previous, OfficeSnapshot current) {
+
+    public String officeId() {
+        return current.id();
+    }
+}
@@ -0,0 +1,39 @@
+package uni.projects.backend.events;
+
+import uni.projects.backend.models.office.Office;
+
+/**
+ * Immutable copy of the searchable state of an {@link Office}.
+ * <p>
+ * Entities are mutated in place by JPA merges, so listeners receive snapshots instead of the managed instance.
+ */
+public record OfficeSnapshot(
+        String id,
+        double price,
+        double metricArea,
+        String country,
+        String city,
+        String postalCode,
+        String address,
+        double x,
+        double y,
+        String ownerId,
+        boolean deleted
+) {
+
+    public static OfficeSnapshot of(Office office) {
+        return new OfficeSnapshot(
+                office.getId(),
+                office.getPrice(),
+                office.getMetricArea(),
+                office.getCountry(),
+                office.getCity(),
+                office.getPostalCode(),
+                office.getAddress(),
+                office.getX(),
+                office.getY(),
+                office.getOwner() != null ? office.getOwner().getId() : null,
+                office.isDeleted()
+        );
+    }
+}
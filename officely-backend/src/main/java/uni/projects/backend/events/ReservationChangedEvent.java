@@ -0,0 +1,28 @@
+package uni.projects.backend.events;
+
+/**
+ * Published by the reservation service after a reservation has been created or changed.
+ *
+ * @param previous the state before the change, or null when the reservation was created
+ * @param current the state after the change
+ */
+public record ReservationChangedEvent(ReservationSnapshot previous, ReservationSnapshot current) {
+
+    public String officeId() {
+        return current.officeId();
+    }
+
+    /**
+     * @return true if the dates blocked by the reservation differ before and after the change
+     */
+    public boolean changesAvailability() {
+        if (previous == null) {
+            return current.isActive();
+        }
+        if (previous.isActive() != current.isActive()) {
+            return true;
+        }
+        return current.isActive() && (!previous.startTime().equals(current.startTime())
+                || !previous.endTime().equals(current.endTime()));
+    }
+}
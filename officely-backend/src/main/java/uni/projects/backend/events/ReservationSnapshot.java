@@ -0,0 +1,57 @@
+package uni.projects.backend.events;
+
+import uni.projects.backend.models.reservation.PaymentType;
+import uni.projects.backend.models.reservation.Reservation;
+import uni.projects.backend.models.reservation.ReservationStatus;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Immutable copy of the state of a {@link Reservation} at the moment it was published.
+ */
+public record ReservationSnapshot(
+        String id,
+        String officeId,
+        String userId,
+        LocalDate startTime,
+        LocalDate endTime,
+        ReservationStatus status,
+        PaymentType paymentType,
+        double totalPrice,
+        long duration,
+        boolean paid,
+        Instant holdExpiresAt
+) {
+
+    public static ReservationSnapshot of(Reservation reservation) {
+        return new ReservationSnapshot(
+                reservation.getId(),
+                reservation.getOffice().getId(),
+                reservation.getUser() != null ? reservation.getUser().getId() : null,
+                reservation.getStartTime(),
+                reservation.getEndTime(),
+                reservation.getStatus(),
+                reservation.getPaymentType(),
+                reservation.getTotalPrice(),
+                reservation.getDuration(),
+                reservation.isPaid(),
+                reservation.getHoldExpiresAt()
+        );
+    }
+
+    /**
+     * @return true if the reservation blocks its office for the booked dates
+     */
+    public boolean isActive() {
+        return status != ReservationStatus.CANCELLED;
+    }
+
+    /**
+     * @return true if the reservation is cancelled at {@link #holdExpiresAt} unless it is paid before
+     */
+    public boolean isHeld() {
+        return holdExpiresAt != null && !paid
+                && (status == ReservationStatus.PENDING || status == ReservationStatus.ONGOING);
+    }
+}
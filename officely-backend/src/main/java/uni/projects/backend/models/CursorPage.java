@@ -0,0 +1,12 @@
+package uni.projects.backend.models;
+
+import java.util.List;
+
+/**
+ * A page of results together with the cursor of the next page.
+ *
+ * @param content the rows of the page
+ * @param nextCursor the encoded cursor of the next page, or null if this is the last page
+ */
+public record CursorPage<T>(List<T> content, String nextCursor) {
+}
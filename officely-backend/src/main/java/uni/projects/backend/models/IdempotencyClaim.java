@@ -0,0 +1,43 @@
+package uni.projects.backend.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A claim of one backend instance on an idempotency key of a caller, so that the request runs on a single instance,
+ * holding the response once the request has finished. The caller and key are stored hashed, the caller is usually
+ * a bearer token.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table
+public class IdempotencyClaim {
+
+    @Id
+    @Column(nullable = false, unique = true, length = 64)
+    private String id;
+
+    @Column(nullable = false)
+    private int fingerprint;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    /**
+     * The HTTP status of the stored response, null if the response is not a {@code ResponseEntity}.
+     */
+    private Integer status;
+
+    /**
+     * The body of the response as JSON, null while the request is running.
+     */
+    @Lob
+    @Column(columnDefinition = "LONGTEXT")
+    private String response;
+}
@@ -0,0 +1,64 @@
+package uni.projects.backend.models;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import uni.projects.backend.exceptions.ArgumentException;
+
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Opaque continuation token for keyset (seek) pagination.
+ * <p>
+ * The token remembers the sort key, the direction and the sort value and ID of the last row returned,
+ * so the next page starts right after that row instead of skipping an offset.
+ *
+ * @param sortBy the sort key as accepted by the sort strategy, null when sorted by ID only
+ * @param ascending the sort direction
+ * @param value the sort value of the last row, as a string
+ * @param id the ID of the last row
+ */
+public record PageCursor(String sortBy, boolean ascending, String value, String id) {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * Creates the cursor pointing after the given row.
+     *
+     * @param sortBy the sort key
+     * @param ascending the sort direction
+     * @param sortValue the sort value of the row, null when sorted by ID only
+     * @param id the ID of the row
+     */
+    public static PageCursor after(String sortBy, boolean ascending, Object sortValue, String id) {
+        return new PageCursor(sortBy, ascending, Objects.toString(sortValue, null), id);
+    }
+
+    public String encode() {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(this));
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not encode page cursor", e);
+        }
+    }
+
+    public static PageCursor decode(String token) {
+        try {
+            return MAPPER.readValue(Base64.getUrlDecoder().decode(token), PageCursor.class);
+        } catch (Exception e) {
+            throw new ArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Checks that the cursor was issued for the requested sort.
+     *
+     * @throws ArgumentException if the sort differs
+     */
+    public void verifySort(String sortBy, boolean ascending) {
+        if (!Objects.equals(this.sortBy, sortBy) || this.ascending != ascending) {
+            throw new ArgumentException("Cursor does not match the requested sort");
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package uni.projects.backend.models;
+
+/**
+ * A requested page of a listing: the sort and either a page number or the cursor of the previous page.
+ *
+ * @param sortBy the sort key as accepted by the sort strategy, null to sort by ID only
+ * @param sortProperty the (possibly nested) entity property of the sort key, null to sort by ID only
+ * @param ascending the sort direction
+ * @param page the page number, ignored when a cursor is given
+ * @param pageSize the maximum number of rows
+ * @param cursor the cursor of the previous page, or null
+ */
+public record PageQuery(String sortBy, String sortProperty, boolean ascending, int page, int pageSize, PageCursor cursor) {
+
+    /**
+     * Resolves the sort key and decodes the cursor.
+     *
+     * @throws uni.projects.backend.exceptions.ArgumentException if the cursor is invalid or was issued for another sort
+     */
+    public static PageQuery of(SortStrategy sortStrategy, String sortBy, boolean ascending, int page, int pageSize, String cursor) {
+        String sortProperty = sortBy != null ? sortStrategy.getSortProperty(sortBy) : null;
+        PageCursor pageCursor = null;
+        if (cursor != null) {
+            pageCursor = PageCursor.decode(cursor);
+            pageCursor.verifySort(sortBy, ascending);
+        }
+        return new PageQuery(sortBy, sortProperty, ascending, page, pageSize, pageCursor);
+    }
+
+    /**
+     * @return the number of rows to skip; 0 when the page continues after a cursor
+     */
+    public int offset() {
+        return cursor != null ? 0 : page * pageSize;
+    }
+
+    /**
+     * @return the same sort and page size, continuing right after the given row
+     */
+    public PageQuery after(Object lastSortValue, String lastId) {
+        return new PageQuery(sortBy, sortProperty, ascending, 0, pageSize,
+                PageCursor.after(sortBy, ascending, sortProperty != null ? lastSortValue : null, lastId));
+    }
+
+    /**
+     * Returns the cursor of the next page, or null if the page was not full and therefore is the last one.
+     *
+     * @param rows the number of rows on this page
+     * @param lastSortValue the sort value of the last row, ignored when sorting by ID only
+     * @param lastId the ID of the last row
+     */
+    public String nextCursor(int rows, Object lastSortValue, String lastId) {
+        if (rows == 0 || rows < pageSize) {
+            return null;
+        }
+        return PageCursor.after(sortBy, ascending, sortProperty != null ? lastSortValue : null, lastId).encode();
+    }
+}
@@ -5,4 +5,11 @@ import org.springframework.data.domain.Sort;
 
 public interface SortStrategy {
     Sort getSort(String sortBy, boolean ascending);
+
+    /**
+     * @return the entity property the given sort key orders by
+     */
+    default String getSortProperty(String sortBy) {
+        return getSort(sortBy, true).iterator().next().getProperty();
+    }
 }
@@ -0,0 +1,9 @@
+package uni.projects.backend.models;
+
+/**
+ * Projection of the mean and standard deviation of daily visitors.
+ */
+public interface VisitorMoments {
+    Double getAverage();
+    Double getStandardDeviation();
+}
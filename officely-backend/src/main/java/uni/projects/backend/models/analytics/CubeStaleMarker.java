@@ -0,0 +1,27 @@
+package uni.projects.backend.models.analytics;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Marks the reservation cube as no longer matching the reservations, so that any instance rebuilds it, also after
+ * the instance that noticed it has stopped. The cube is stale while the marker exists.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table
+public class CubeStaleMarker {
+
+    @Id
+    @Column(nullable = false, unique = true)
+    private String name;
+
+    @Column(nullable = false)
+    private Instant markedAt;
+}
@@ -0,0 +1,33 @@
+package uni.projects.backend.models.analytics;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import uni.projects.backend.models.reservation.PaymentType;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Cell of the reservation cube: one office, one day and one payment type.
+ */
+@Embeddable
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OfficeDayKey implements Serializable {
+
+    @Column(name = "office_id", nullable = false)
+    private String officeId;
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private PaymentType paymentType;
+}
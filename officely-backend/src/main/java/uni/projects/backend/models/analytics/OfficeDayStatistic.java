@@ -0,0 +1,33 @@
+package uni.projects.backend.models.analytics;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Aggregated reservations of one office on one day, paid with one payment type.
+ * <p>
+ * Every active reservation adds one booked day and its price of the day ({@code totalPrice / duration}) to each of
+ * its charged days, from the start day up to, but excluding, the end day. A cancelled reservation adds one
+ * cancellation to its start day instead.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_office_day_statistic_date", columnList = "date"))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OfficeDayStatistic {
+
+    @EmbeddedId
+    private OfficeDayKey id;
+
+    @Column(nullable = false)
+    private long bookedDays;
+
+    @Column(nullable = false)
+    private double revenue;
+
+    @Column(nullable = false)
+    private long cancellations;
+}
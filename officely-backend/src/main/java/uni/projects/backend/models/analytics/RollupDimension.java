@@ -0,0 +1,34 @@
+package uni.projects.backend.models.analytics;
+
+import uni.projects.backend.exceptions.ArgumentException;
+
+/**
+ * Office attributes the reservation cube can be rolled up by.
+ */
+public enum RollupDimension {
+    CITY("o.city"),
+    COUNTRY("o.country"),
+    OWNER("o.owner.id");
+
+    private final String path;
+
+    RollupDimension(String path) {
+        this.path = path;
+    }
+
+    /**
+     * @return the JPQL path of the attribute, relative to the office alias {@code o}
+     */
+    public String getPath() {
+        return path;
+    }
+
+    public static RollupDimension parse(String dimension) {
+        for (RollupDimension value : values()) {
+            if (value.name().equalsIgnoreCase(dimension)) {
+                return value;
+            }
+        }
+        throw new ArgumentException("Invalid roll-up dimension " + dimension + ", expected city, country or owner");
+    }
+}
@@ -0,0 +1,20 @@
+package uni.projects.backend.models.analytics;
+
+import uni.projects.backend.exceptions.ArgumentException;
+
+/**
+ * Time buckets of the reservation cube roll-ups.
+ */
+public enum RollupPeriod {
+    MONTH,
+    YEAR;
+
+    public static RollupPeriod parse(String period) {
+        for (RollupPeriod value : values()) {
+            if (value.name().equalsIgnoreCase(period)) {
+                return value;
+            }
+        }
+        throw new ArgumentException("Invalid roll-up period " + period + ", expected month or year");
+    }
+}
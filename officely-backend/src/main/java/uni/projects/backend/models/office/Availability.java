@@ -0,0 +1,17 @@
+package uni.projects.backend.models.office;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+
+public record Availability(
+
+        @Schema(description = "A day on which the office is free", example = "2024-06-01")
+        @JsonFormat(pattern = "yyyy-MM-dd")
+        LocalDate date,
+
+        @Schema(description = "The price multiplier for that day", example = "1.25")
+        double priceMultiplier
+) {
+}
@@ -19,4 +19,14 @@ public class Image {
     @Lob
     @Column(nullable = false, columnDefinition = "LONGBLOB")
     private byte[] data;
+
+    private String contentType;
+
+    private Long size;
+
+    /**
+     * Hex encoded SHA-256 of the data, the strong ETag of the image.
+     */
+    @Column(length = 64)
+    private String sha256;
 }
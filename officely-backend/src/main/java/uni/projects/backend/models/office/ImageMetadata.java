@@ -0,0 +1,11 @@
+package uni.projects.backend.models.office;
+
+/**
+ * Projection of what describes the data of an image, without the data itself.
+ */
+public interface ImageMetadata {
+    Integer getId();
+    String getContentType();
+    Long getSize();
+    String getSha256();
+}
@@ -5,6 +5,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 import uni.projects.backend.models.user.User;
 
 import java.util.ArrayList;
@@ -17,6 +18,11 @@ import java.util.List;
 @NoArgsConstructor
 public class Office {
 
+    /**
+     * Number of offices whose amenities or images are loaded by one query when they are accessed lazily.
+     */
+    public static final int BATCH_SIZE = 100;
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private String id;
@@ -61,6 +67,7 @@ public class Office {
             inverseJoinColumns = @JoinColumn(name = "amenity_id")
     )
     @Column
+    @BatchSize(size = BATCH_SIZE)
     private List<Amenity> amenities = new ArrayList<>();
 
     @ManyToMany
@@ -70,6 +77,7 @@ public class Office {
             inverseJoinColumns = @JoinColumn(name = "image_id")
     )
     @Column
+    @BatchSize(size = BATCH_SIZE)
     private List<Image> images = new ArrayList<>();
 
     @Column(nullable = false)
@@ -78,6 +86,10 @@ public class Office {
     @ManyToOne(optional = false)
     private User owner;
 
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     public String getFullAddress() {
         return address + ", " + postalCode + " " + city + ", " + country;
     }
@@ -0,0 +1,10 @@
+package uni.projects.backend.models.office;
+
+/**
+ * Projection of an office's coordinates, used to load the spatial index without hydrating full entities.
+ */
+public interface OfficeLocation {
+    String getId();
+    double getX(); //lon
+    double getY(); //lat
+}
@@ -0,0 +1,15 @@
+package uni.projects.backend.models.reservation;
+
+/**
+ * How a batch of reservations treats items that cannot be booked.
+ */
+public enum BatchMode {
+    /**
+     * Nothing is booked if any item is invalid or overlaps another reservation.
+     */
+    ALL_OR_NOTHING,
+    /**
+     * The valid items are booked, the others are reported with their error.
+     */
+    BEST_EFFORT
+}
@@ -0,0 +1,36 @@
+package uni.projects.backend.models.reservation;
+
+import uni.projects.backend.exceptions.ArgumentException;
+
+/**
+ * File formats of the reservation export.
+ */
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static ExportFormat parse(String format) {
+        for (ExportFormat value : values()) {
+            if (value.extension.equalsIgnoreCase(format)) {
+                return value;
+            }
+        }
+        throw new ArgumentException("Invalid export format " + format + ", expected ndjson or csv");
+    }
+}
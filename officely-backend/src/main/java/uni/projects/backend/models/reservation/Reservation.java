@@ -7,16 +7,33 @@ import lombok.NoArgsConstructor;
 import uni.projects.backend.models.office.Office;
 import uni.projects.backend.models.user.User;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 
 @Entity
-@Table
+@Table(indexes = {
+        @Index(name = "idx_reservation_office_status_dates", columnList = "office_id, status, start_time, end_time"),
+        @Index(name = "idx_reservation_user_booked_at", columnList = "user_id, booked_at"),
+        @Index(name = "idx_reservation_status_total_price", columnList = "status, total_price"),
+        @Index(name = "idx_reservation_hold_expires_at", columnList = "hold_expires_at"),
+        @Index(name = "idx_reservation_updated_at", columnList = "updated_at")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
+@NamedEntityGraph(
+        name = Reservation.WITH_OFFICE,
+        attributeNodes = {@NamedAttributeNode(value = "office", subgraph = "office"), @NamedAttributeNode("user")},
+        subgraphs = @NamedSubgraph(name = "office", attributeNodes = @NamedAttributeNode("owner"))
+)
 public class Reservation {
 
+    /**
+     * Fetch plan for reservation lists: the office, its owner and the user are joined.
+     */
+    public static final String WITH_OFFICE = "Reservation.withOffice";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private String id;
@@ -67,9 +84,25 @@ public class Reservation {
     @Column(nullable = true)
     private LocalDate paidAt;
 
+    @Column(nullable = true)
+    private Instant holdExpiresAt; // Unpaid online reservations are cancelled at this time
+
     @Column(nullable = false)
     private boolean deleted;
 
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    @Column(nullable = true)
+    private Instant updatedAt; // Last insert or update, lets other instances pick up changed reservations
+
+    @PrePersist
+    @PreUpdate
+    private void touch() {
+        this.updatedAt = Instant.now();
+    }
+
     public void setStartTime(LocalDate startTime) {
         this.startTime = startTime;
         recalculateDurationAndTotalPrice();
@@ -85,6 +118,11 @@ public class Reservation {
         recalculateTotalPrice();
     }
 
+    public void setPriceMultiplier(double priceMultiplier) {
+        this.priceMultiplier = priceMultiplier;
+        recalculateTotalPrice();
+    }
+
     // Method to recalculate both duration and total price
     private void recalculateDurationAndTotalPrice() {
         recalculateDuration();
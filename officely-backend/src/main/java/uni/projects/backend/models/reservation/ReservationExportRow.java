@@ -0,0 +1,39 @@
+package uni.projects.backend.models.reservation;
+
+import java.time.LocalDate;
+
+/**
+ * A reservation flattened to one row of an export, with the office and the user reduced to a few columns.
+ */
+public record ReservationExportRow(
+        String id,
+        String officeId,
+        String officeName,
+        String country,
+        String city,
+        String userEmail,
+        LocalDate startTime,
+        LocalDate endTime,
+        LocalDate bookedAt,
+        Long duration,
+        Double pricePerDay,
+        Double priceMultiplier,
+        Double totalPrice,
+        ReservationStatus status,
+        PaymentType paymentType,
+        Boolean paid,
+        LocalDate paidAt
+) {
+
+    public static final String[] COLUMNS = {"id", "officeId", "officeName", "country", "city", "userEmail",
+            "startTime", "endTime", "bookedAt", "duration", "pricePerDay", "priceMultiplier", "totalPrice",
+            "status", "paymentType", "paid", "paidAt"};
+
+    /**
+     * @return the values in the order of {@link #COLUMNS}
+     */
+    public Object[] values() {
+        return new Object[]{id, officeId, officeName, country, city, userEmail, startTime, endTime, bookedAt, duration,
+                pricePerDay, priceMultiplier, totalPrice, status, paymentType, paid, paidAt};
+    }
+}
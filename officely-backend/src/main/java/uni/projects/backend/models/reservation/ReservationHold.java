@@ -0,0 +1,11 @@
+package uni.projects.backend.models.reservation;
+
+import java.time.Instant;
+
+/**
+ * Projection of an unpaid reservation and the time it is released at.
+ */
+public interface ReservationHold {
+    String getId();
+    Instant getHoldExpiresAt();
+}
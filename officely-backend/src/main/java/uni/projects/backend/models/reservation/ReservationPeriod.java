@@ -0,0 +1,13 @@
+package uni.projects.backend.models.reservation;
+
+import java.time.LocalDate;
+
+/**
+ * Projection of the office and dates blocked by a reservation.
+ */
+public interface ReservationPeriod {
+    String getId();
+    String getOfficeId();
+    LocalDate getStartTime();
+    LocalDate getEndTime();
+}
@@ -18,7 +18,7 @@ public class ReservationSortStrategy implements SortStrategy {
             "status", direction -> Sort.by(direction, "status"),
             "paid", direction -> Sort.by(direction, "paid"),
             "bookedAt", direction -> Sort.by(direction, "bookedAt"),
-            "city", direction -> Sort.by(direction, "city")
+            "city", direction -> Sort.by(direction, "office.city")
     );
 
     @Override
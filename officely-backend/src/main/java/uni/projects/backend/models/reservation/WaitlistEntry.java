@@ -0,0 +1,67 @@
+package uni.projects.backend.models.reservation;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import uni.projects.backend.models.office.Office;
+import uni.projects.backend.models.user.User;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Interest of a user in booking an office, or any office of a city, for a date range that is taken.
+ * When a reservation matching the entry is cancelled, the range is booked for the user.
+ */
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_waitlist_entry_status_start_time", columnList = "status, start_time"),
+        @Index(name = "idx_waitlist_entry_user_created_at", columnList = "user_id, created_at")
+})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @ManyToOne
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne
+    @JoinColumn(name = "office_id")
+    private Office office; // Null when waiting for any office of the city
+
+    @Column(nullable = true)
+    private String city;
+
+    @Column(nullable = true)
+    private Double maxPricePerDay;
+
+    @Column(nullable = false)
+    private LocalDate startTime;
+
+    @Column(nullable = false)
+    private LocalDate endTime;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private PaymentType paymentType;
+
+    @Column(nullable = false)
+    private String comments;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private WaitlistStatus status;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(nullable = true)
+    private String reservationId; // The reservation booked for the entry once fulfilled
+}
@@ -0,0 +1,8 @@
+package uni.projects.backend.models.reservation;
+
+public enum WaitlistStatus {
+    WAITING,
+    FULFILLED,
+    EXPIRED,
+    CANCELLED
+}
@@ -0,0 +1,23 @@
+package uni.projects.backend.models.user;
+
+import java.time.Instant;
+
+/**
+ * The caller of a request, as carried by a verified bearer token.
+ *
+ * @param issuedAt when the token was issued
+ */
+public record AuthenticatedUser(String userId, Roles role, Instant issuedAt) {
+
+    /**
+     * Request attribute holding the {@link AuthenticatedUser} of a request with a valid bearer token.
+     */
+    public static final String REQUEST_ATTRIBUTE = AuthenticatedUser.class.getName();
+
+    /**
+     * Request attribute holding the reason a bearer token was rejected.
+     */
+    public static final String ERROR_ATTRIBUTE = AuthenticatedUser.class.getName() + ".error";
+
+    public static final String BEARER_PREFIX = "Bearer ";
+}
@@ -0,0 +1,26 @@
+package uni.projects.backend.models.user;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A user whose bearer tokens issued until the given time are no longer accepted, shared by all backend instances.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(indexes = @Index(name = "idx_token_revocation_revoked_at", columnList = "revoked_at"))
+public class TokenRevocation {
+
+    @Id
+    @Column(nullable = false, unique = true)
+    private String userId;
+
+    @Column(nullable = false)
+    private Instant revokedAt;
+}
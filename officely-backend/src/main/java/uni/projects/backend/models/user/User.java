@@ -9,7 +9,8 @@ import java.time.LocalDate;
 
 @Entity
 @Table(indexes = {
-        @Index(name = "email_index", columnList = "email", unique = true)
+        @Index(name = "email_index", columnList = "email", unique = true),
+        @Index(name = "phone_number_index", columnList = "phone_number")
 })
 @Data
 @AllArgsConstructor
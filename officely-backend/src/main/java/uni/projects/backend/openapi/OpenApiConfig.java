@@ -3,12 +3,18 @@ package uni.projects.backend.openapi;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Info;
 import io.swagger.v3.oas.models.info.License;
+import org.springdoc.core.utils.SpringDocUtils;
 import org.springframework.context.annotation.Bean;
 import org.springframework.core.env.Environment;
+import uni.projects.backend.utils.BodyArguments;
 
 //@ConfigurationProperties(prefix = "application.springdoc")
 public class OpenApiConfig {
 
+    static {
+        SpringDocUtils.getConfig().addRequestWrapperToIgnore(BodyArguments.class);
+    }
+
     private final Environment environment;
     private String description;
     private String version;
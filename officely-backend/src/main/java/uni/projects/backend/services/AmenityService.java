@@ -4,6 +4,7 @@ import org.springframework.stereotype.Service;
 import uni.projects.backend.dao.AmenityRepository;
 import uni.projects.backend.exceptions.ResourceNotFoundException;
 import uni.projects.backend.models.office.Amenity;
+import uni.projects.backend.services.cache.OfficeSearchCache;
 import uni.projects.backend.web.AmenityDto;
 
 import java.util.List;
@@ -12,9 +13,11 @@ import java.util.stream.Collectors;
 @Service
 public class AmenityService {
     private final AmenityRepository amenityRepository;
+    private final OfficeSearchCache officeSearchCache;
 
-    public AmenityService(AmenityRepository amenityRepository) {
+    public AmenityService(AmenityRepository amenityRepository, OfficeSearchCache officeSearchCache) {
         this.amenityRepository = amenityRepository;
+        this.officeSearchCache = officeSearchCache;
     }
 
     public Amenity addAmenity(AmenityDto amenityDto) {
@@ -29,6 +32,7 @@ public class AmenityService {
             throw new ResourceNotFoundException("Amenity with id " + Integer.toString(amenityId) + " not found");
 
         amenityRepository.deleteById(amenityId);
+        officeSearchCache.evictAmenity(amenityId);
         return !amenityRepository.existsById(amenityId);
     }
 
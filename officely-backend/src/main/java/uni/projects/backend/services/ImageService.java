@@ -1,15 +1,24 @@
 package uni.projects.backend.services;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import uni.projects.backend.dao.ImageRepository;
 import uni.projects.backend.dao.OfficeRepository;
+import uni.projects.backend.events.OfficeChangedEvent;
+import uni.projects.backend.events.OfficeSnapshot;
 import uni.projects.backend.exceptions.ResourceNotFoundException;
 import uni.projects.backend.models.office.Image;
+import uni.projects.backend.models.office.ImageMetadata;
 import uni.projects.backend.models.office.Office;
+import uni.projects.backend.utils.OptimisticRetry;
 import uni.projects.backend.web.ImageDto;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
+import java.util.HexFormat;
 import java.util.List;
 
 @Service
@@ -21,9 +30,13 @@ public class ImageService {
     @Autowired
     private OfficeRepository officeRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public ImageDto createImage(ImageDto image) {
         Image newImage = new Image();
         newImage.setData(Base64.getDecoder().decode(image.data()));
+        describe(newImage);
         return ImageDto.valueFrom(imageRepository.save(newImage));
     }
 
@@ -35,6 +48,29 @@ public class ImageService {
         return ImageDto.valueFrom(image);
     }
 
+    /**
+     * Finds what describes the data of an image without loading the data. Images stored before the
+     * description was kept are described, and updated, on their first request.
+     */
+    public ImageMetadata getImageMetadata(Integer id) {
+        ImageMetadata metadata = imageRepository.findMetadataById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Image not found"));
+        if (metadata.getSha256() != null && metadata.getContentType() != null && metadata.getSize() != null) {
+            return metadata;
+        }
+        Image image = imageRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Image not found"));
+        describe(image);
+        imageRepository.save(image);
+        return imageRepository.findMetadataById(id).orElseThrow(() -> new ResourceNotFoundException("Image not found"));
+    }
+
+    /**
+     * @return the raw data of the image, loaded without the entity around it
+     */
+    public byte[] getImageData(Integer id) {
+        return imageRepository.findDataById(id).orElseThrow(() -> new ResourceNotFoundException("Image not found"));
+    }
+
     public List<Image> getImagesByIds(List<Integer> list) {
         return imageRepository.findAllById(list);
     }
@@ -45,11 +81,66 @@ public class ImageService {
         List<Office> offices = officeRepository.findAll();
         for (Office office : offices) {
             if (office.getImages().contains(image)) {
-                office.getImages().remove(image);
-                officeRepository.save(office);
+                // Bookings bump the version of the office, so a collision reloads the office and removes the image again
+                OptimisticRetry.retryOnce(() -> {
+                    Office current = officeRepository.findById(office.getId()).orElse(null);
+                    if (current == null) {
+                        return null;
+                    }
+                    OfficeSnapshot snapshot = OfficeSnapshot.of(current);
+                    current.getImages().remove(image);
+                    officeRepository.save(current);
+                    eventPublisher.publishEvent(new OfficeChangedEvent(snapshot, snapshot));
+                    return current;
+                }, "The office " + office.getId() + " was changed by another request at the same time, please try again");
             }
         }
 
         imageRepository.deleteById(imageId);
     }
+
+    private static void describe(Image image) {
+        byte[] data = image.getData();
+        image.setContentType(detectContentType(data));
+        image.setSize((long) data.length);
+        try {
+            image.setSha256(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+    /**
+     * Detects the type of an image from the signature at the start of its data.
+     */
+    static String detectContentType(byte[] data) {
+        if (startsWith(data, 0, 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n')) {
+            return MediaType.IMAGE_PNG_VALUE;
+        }
+        if (startsWith(data, 0, 0xFF, 0xD8, 0xFF)) {
+            return MediaType.IMAGE_JPEG_VALUE;
+        }
+        if (startsWith(data, 0, 'G', 'I', 'F', '8')) {
+            return MediaType.IMAGE_GIF_VALUE;
+        }
+        if (startsWith(data, 0, 'R', 'I', 'F', 'F') && startsWith(data, 8, 'W', 'E', 'B', 'P')) {
+            return "image/webp";
+        }
+        if (startsWith(data, 0, 'B', 'M')) {
+            return "image/bmp";
+        }
+        return MediaType.APPLICATION_OCTET_STREAM_VALUE;
+    }
+
+    private static boolean startsWith(byte[] data, int offset, int... signature) {
+        if (data.length < offset + signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if ((data[offset + i] & 0xFF) != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
@@ -4,32 +4,40 @@ import lombok.Getter;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import uni.projects.backend.dao.OfficeRepository;
+import uni.projects.backend.events.OfficeChangedEvent;
+import uni.projects.backend.events.OfficeSnapshot;
 import uni.projects.backend.exceptions.ArgumentException;
 import uni.projects.backend.exceptions.ResourceNotFoundException;
-import uni.projects.backend.models.SortStrategy;
+import uni.projects.backend.models.CursorPage;
+import uni.projects.backend.models.PageQuery;
 import uni.projects.backend.models.office.*;
-import uni.projects.backend.models.reservation.Reservation;
-import uni.projects.backend.models.reservation.ReservationStatus;
 import uni.projects.backend.models.user.User;
+import uni.projects.backend.services.cache.OfficeSearchCache;
+import uni.projects.backend.services.calendar.AvailabilityCalendarService;
 import uni.projects.backend.services.geocoding.GeocodingService;
 import uni.projects.backend.services.geocoding.Location;
+import uni.projects.backend.services.index.OfficeAvailabilityIndex;
+import uni.projects.backend.services.index.OfficeSpatialIndex;
+import uni.projects.backend.services.pricing.PricingEngine;
+import uni.projects.backend.utils.OptimisticRetry;
 import uni.projects.backend.web.AmenityDto;
 import uni.projects.backend.web.ImageDto;
 import uni.projects.backend.web.OfficeDto;
 
 import java.time.LocalDate;
 import java.time.YearMonth;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Slf4j
 @Service
 public class OfficeService {
+    private static final String OFFICE_CONFLICT = "The office was changed by another request at the same time, please try again";
+
     private final OfficeRepository officeRepository;
 
     @Autowired
@@ -42,7 +50,22 @@ public class OfficeService {
     private GeocodingService geocodingService;
 
     @Autowired
-    private TrafficStatisticService trafficStatisticService;
+    private PricingEngine pricingEngine;
+
+    @Autowired
+    private OfficeSpatialIndex officeSpatialIndex;
+
+    @Autowired
+    private OfficeAvailabilityIndex officeAvailabilityIndex;
+
+    @Autowired
+    private OfficeSearchCache officeSearchCache;
+
+    @Autowired
+    private AvailabilityCalendarService availabilityCalendarService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     public OfficeService(OfficeRepository officeRepository) {
         this.officeRepository = officeRepository;
@@ -83,7 +106,9 @@ public class OfficeService {
         List<Image> images = imageService.getImagesByIds(office.images().stream().map(ImageDto::id).toList());
         newOffice.setImages(images);
         newOffice.setOwner(user);
-        return officeRepository.save(newOffice);
+        Office savedOffice = officeRepository.save(newOffice);
+        eventPublisher.publishEvent(new OfficeChangedEvent(null, OfficeSnapshot.of(savedOffice)));
+        return savedOffice;
     }
 
     @SneakyThrows
@@ -100,88 +125,87 @@ public class OfficeService {
         Location location = geocodingService.geocode(updatedOffice.getFullAddress()).get();
         updatedOffice.setX(location.getLongitude());
         updatedOffice.setY(location.getLatitude());
-        return OfficeDto.valueFrom(officeRepository.save(updatedOffice));
+
+        // Bookings bump the version of the office, so the version is read again right before saving
+        return OptimisticRetry.retryOnce(() -> {
+            Office current = officeRepository.findById(officeId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Office with id " + officeId + " not found"));
+            OfficeSnapshot previous = OfficeSnapshot.of(current);
+            updatedOffice.setVersion(current.getVersion());
+            Office savedOffice = officeRepository.save(updatedOffice);
+            eventPublisher.publishEvent(new OfficeChangedEvent(previous, OfficeSnapshot.of(savedOffice)));
+            return OfficeDto.valueFrom(savedOffice);
+        }, OFFICE_CONFLICT);
     }
 
     public boolean deleteOffice(String officeId) {
-        Optional<Office> office = officeRepository.findById(officeId);
-
-        if(office.isEmpty()) {
-            throw new ResourceNotFoundException("Office with id" + officeId + "doesn't exist.");
-        }
-
-        office.get().setDeleted(true);
-        officeRepository.save(office.get());
-        return office.get().isDeleted();
+        return OptimisticRetry.retryOnce(() -> {
+            Office office = officeRepository.findById(officeId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Office with id" + officeId + "doesn't exist."));
+
+            OfficeSnapshot previous = OfficeSnapshot.of(office);
+            office.setDeleted(true);
+            officeRepository.save(office);
+            eventPublisher.publishEvent(new OfficeChangedEvent(previous, OfficeSnapshot.of(office)));
+            return office.isDeleted();
+        }, OFFICE_CONFLICT);
     }
 
-    public List<OfficeDto> findAvailableOfficesAndFilter(LocalDate dateStart, LocalDate dateEnd, OfficeFilter officeFilter,
-                                                         String sortBy, boolean ascending, int page, int pageSize) {
-        Sort sort = Sort.unsorted();
-
-        Double priceMultiplier = trafficStatisticService.calculateMultiplier(dateStart, dateEnd);
-
-        if(sortBy != null) {
-            SortStrategy sortStrategy = new OfficeSortStrategy();
-            sort = sortStrategy.getSort(sortBy, ascending);
-        }
-
-        PageRequest pageRequest = PageRequest.of(page, pageSize, sort);
+    public CursorPage<OfficeDto> findAvailableOfficesAndFilter(LocalDate dateStart, LocalDate dateEnd, OfficeFilter officeFilter,
+                                                               String sortBy, boolean ascending, int page, int pageSize, String cursor) {
+        // Priced like a reservation of the searched days, so the listing matches the quote and the charge
+        double priceMultiplier = pricingEngine.priceMultiplier(dateStart, dateEnd.plusDays(1));
 
-        List<Office> offices = officeRepository.findAvailableOffices(dateStart, dateEnd, officeFilter, pageRequest).stream()
-                .peek(office -> office.setPrice(Math.round(office.getPrice() * priceMultiplier)))
-                .toList();
+        OfficeSearchCache.Key key = OfficeSearchCache.Key.of(dateStart, dateEnd, officeFilter, sortBy, ascending, page, pageSize, cursor);
+        CursorPage<OfficeDto> offices = officeSearchCache.get(key,
+                () -> searchOffices(dateStart, dateEnd, officeFilter, sortBy, ascending, page, pageSize, cursor));
 
-        if(offices.isEmpty()) {
+        if(offices.content().isEmpty()) {
             throw new ResourceNotFoundException("No available offices found");
         }
-        return offices.stream().map(OfficeDto::valueFrom).toList();
-    }
 
-    public OfficeDto getOfficeById(String id) {
-        return OfficeDto.valueFrom(officeRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Office with id " + id + " not found")));
+        return new CursorPage<>(
+                offices.content().stream()
+                        .map(office -> office.withPrice((double) Math.round(office.price() * priceMultiplier)))
+                        .toList(),
+                offices.nextCursor());
     }
 
-    public List<Availability> getAvailableDatesWithPriceMultiplyer(String id, LocalDate dateStart) {
-        YearMonth yearMonth = YearMonth.from(dateStart);
-        LocalDate startOfMonth = yearMonth.atDay(1);
-        LocalDate endOfMonth = yearMonth.atEndOfMonth();
-
-        List<Reservation> reservations = officeRepository.findReservationsByOfficeIdAndDateRange(id, startOfMonth, endOfMonth);
-        List<Availability> availableDates = new ArrayList<>();
-
-        for (LocalDate date = startOfMonth; !date.isAfter(endOfMonth); date = date.plusDays(1)) {
-            boolean isAvailable = true;
-            for (Reservation reservation : reservations) {
-                if (!reservation.getStatus().equals(ReservationStatus.CANCELLED) &&
-                        (date.isEqual(reservation.getStartTime()) || date.isEqual(reservation.getEndTime()) ||
-                                (date.isAfter(reservation.getStartTime()) && date.isBefore(reservation.getEndTime())))) {
-                    isAvailable = false;
-                    break;
-                }
-            }
-            if (isAvailable) {
-                double priceMultiplier = getPriceMultiplierForDate(date); // Implement this method to get the price multiplier
-                availableDates.add(new Availability(date, priceMultiplier));
+    /**
+     * Finds one page of offices matching the filter, with their base prices.
+     */
+    private CursorPage<OfficeDto> searchOffices(LocalDate dateStart, LocalDate dateEnd, OfficeFilter officeFilter,
+                                                String sortBy, boolean ascending, int page, int pageSize, String cursor) {
+        PageQuery pageQuery = PageQuery.of(new OfficeSortStrategy(), sortBy, ascending, page, pageSize, cursor);
+
+        Set<String> busyIds = officeFilter.getAvailableFrom() != null
+                ? officeAvailabilityIndex.findBusy(dateStart, dateEnd)
+                : Set.of();
+
+        if (officeFilter.getX() != null && officeFilter.getY() != null && officeFilter.getDistance() != null) {
+            Set<String> candidateIds = officeSpatialIndex.findWithin(officeFilter.getX(), officeFilter.getY(), officeFilter.getDistance());
+            candidateIds.removeAll(busyIds);
+            if (candidateIds.isEmpty()) {
+                return new CursorPage<>(List.of(), null);
             }
+            return officeRepository.findOfficePage(officeFilter, candidateIds, null, pageQuery);
         }
-
-        return availableDates;
+        return officeRepository.findOfficePage(officeFilter, null, busyIds.isEmpty() ? null : busyIds, pageQuery);
     }
 
-    private double getPriceMultiplierForDate(LocalDate date) {
-
-        return trafficStatisticService.calculateMultiplier(date, date);
+    public OfficeDto getOfficeById(String id) {
+        return OfficeDto.valueFrom(officeRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Office with id " + id + " not found")));
     }
 
-    @Getter
-    public class Availability {
-        private final LocalDate date;
-        private final double priceMultiplier;
-
-        public Availability(LocalDate date, double priceMultiplier) {
-            this.date = date;
-            this.priceMultiplier = priceMultiplier;
-        }
+    /**
+     * Returns the free days of an office with their price multipliers.
+     *
+     * @param dateStart the first day; the calendar starts on the first day of its month
+     * @param dateEnd the last day, or null for the end of the month of dateStart
+     */
+    public List<Availability> getAvailableDatesWithPriceMultiplyer(String id, LocalDate dateStart, LocalDate dateEnd) {
+        LocalDate startOfMonth = YearMonth.from(dateStart).atDay(1);
+        LocalDate end = dateEnd != null ? dateEnd : YearMonth.from(dateStart).atEndOfMonth();
+        return availabilityCalendarService.getAvailability(id, startOfMonth, end);
     }
 }
@@ -1,25 +1,54 @@
 package uni.projects.backend.services;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import uni.projects.backend.dao.OfficeRepository;
 import uni.projects.backend.dao.ReservationRepository;
+import uni.projects.backend.events.ReservationChangedEvent;
+import uni.projects.backend.events.ReservationSnapshot;
 import uni.projects.backend.exceptions.ArgumentException;
 import uni.projects.backend.exceptions.ResourceNotFoundException;
-import uni.projects.backend.models.SortStrategy;
+import uni.projects.backend.models.CursorPage;
+import uni.projects.backend.models.PageQuery;
 import uni.projects.backend.models.office.Office;
 import uni.projects.backend.models.reservation.*;
 import uni.projects.backend.models.user.User;
+import uni.projects.backend.services.index.IntervalTree;
+import uni.projects.backend.services.index.ReservationIntervalIndex;
+import uni.projects.backend.services.lock.OfficeLocks;
+import uni.projects.backend.services.pricing.PricingEngine;
+import uni.projects.backend.web.QuoteDto;
+import uni.projects.backend.web.ReservationBatchItemDto;
+import uni.projects.backend.web.ReservationBatchResultDto;
 import uni.projects.backend.web.ReservationDto;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.function.Supplier;
 
 @Service
 public class ReservationService {
 
+    static final int MAX_QUOTES = 100;
+    static final int MAX_BATCH_SIZE = 200;
+
+    @Value("${reservation.hold.ttl-millis:900000}")
+    private long holdTtlMillis;
+
     @Autowired
     private ReservationRepository reservationRepository;
 
@@ -27,75 +56,190 @@ public class ReservationService {
     private OfficeRepository officeRepository;
 
     @Autowired
-    private TrafficStatisticService trafficStatisticService;
+    private PricingEngine pricingEngine;
+
+    @Autowired
+    private ReservationIntervalIndex reservationIntervalIndex;
+
+    @Autowired
+    private OfficeLocks officeLocks;
 
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Books an office. Bookings of the same office are serialized by {@link OfficeLocks} within this instance
+     * and by the version of the office between instances, so overlapping requests are rejected, never both saved.
+     */
     public ReservationDto createReservation(ReservationDto reservationDto, User user, String officeId) {
+        return createReservation(reservationDto, user, officeId, holdTtlMillis);
+    }
 
-        Office office = officeRepository.findById(officeId).orElseThrow( () -> new RuntimeException("Office not found"));
-        if (office.isDeleted()) {
-            throw new ArgumentException("Office is deleted");
-        }
-        if (reservationDto.startTime() == null || reservationDto.endTime() == null) {
-            throw new ArgumentException("Start time and end time must be set");
-        }
-        if (reservationDto.paymentType() == null) {
-            throw new ArgumentException("Payment type must be set");
-        }
-        if(reservationDto.startTime().isBefore(LocalDate.now()) || reservationDto.endTime().isBefore(LocalDate.now())) {
-            throw new ArgumentException("Reservation cannot be in the past");
-        }
-        if(reservationDto.startTime().isAfter(reservationDto.endTime())) {
-            throw new ArgumentException("Start time cannot be after end time");
+    /**
+     * Books an office like {@link #createReservation(ReservationDto, User, String)}, holding an unpaid online
+     * reservation for the given time instead of the default hold. Joins the transaction of the caller, if any.
+     */
+    public ReservationDto createReservation(ReservationDto reservationDto, User user, String officeId, long holdMillis) {
+
+        validateNewReservation(reservationDto.startTime(), reservationDto.endTime(), reservationDto.paymentType());
+
+        return officeLocks.withLock(officeId, () -> inBookingTransaction(() -> {
+            Office office = officeRepository.findForBookingById(officeId).orElseThrow(() -> new ResourceNotFoundException("Office not found"));
+            if (office.isDeleted()) {
+                throw new ArgumentException("Office is deleted");
+            }
+            if (reservationIntervalIndex.overlaps(office, reservationDto.startTime(), reservationDto.endTime(), null)) {
+                throw new ArgumentException("Reservation overlaps with another reservation");
+            }
+
+            Reservation reservation = newReservation(user, office, reservationDto.startTime(), reservationDto.endTime(),
+                    reservationDto.paymentType(), reservationDto.comments(),
+                    pricingEngine.priceMultiplier(reservationDto.startTime(), reservationDto.endTime()),
+                    holdExpiresAt(reservationDto.paymentType(), holdMillis));
+
+            saveAndPublish(null, reservation);
+
+            return ReservationDto.valueFrom(reservation);
+        }));
+    }
+
+    /**
+     * Books several offices and date ranges at once, in one transaction.
+     * <p>
+     * The offices are loaded and locked together, the stored reservations they could overlap with are read by one
+     * query, and the items are checked against those and against the items before them in the batch. Every distinct
+     * date range is priced once, and the rows are inserted in JDBC batches when the transaction commits.
+     *
+     * @return the outcome of every item, in the order of the batch
+     */
+    public List<ReservationBatchResultDto> createReservations(List<ReservationBatchItemDto> items, BatchMode mode, User user) {
+        if (items == null || items.isEmpty()) {
+            throw new ArgumentException("At least one reservation must be given");
+        }
+        if (items.size() > MAX_BATCH_SIZE) {
+            throw new ArgumentException("At most " + MAX_BATCH_SIZE + " reservations can be created at once");
+        }
+        BatchMode batchMode = mode != null ? mode : BatchMode.ALL_OR_NOTHING;
+
+        String[] errors = new String[items.size()];
+        Set<String> officeIds = new HashSet<>();
+        LocalDate from = LocalDate.MAX;
+        LocalDate to = LocalDate.MIN;
+        for (int i = 0; i < items.size(); i++) {
+            ReservationBatchItemDto item = items.get(i);
+            try {
+                if (item == null || item.officeId() == null) {
+                    throw new ArgumentException("Office ID must be set");
+                }
+                validateNewReservation(item.startTime(), item.endTime(), item.paymentType());
+            } catch (ArgumentException e) {
+                errors[i] = e.getMessage();
+                continue;
+            }
+            officeIds.add(item.officeId());
+            from = item.startTime().isBefore(from) ? item.startTime() : from;
+            to = item.endTime().isAfter(to) ? item.endTime() : to;
         }
-        if (reservationDto.startTime().isEqual(reservationDto.endTime())) {
-            throw new ArgumentException("Start time cannot be equal to end time");
+        if (batchMode == BatchMode.ALL_OR_NOTHING) {
+            rejectIfAnyFailed(errors);
         }
-        if (reservationRepository.existsOverlappingReservation(officeId, reservationDto.startTime(), reservationDto.endTime())) {
-            throw new ArgumentException("Reservation overlaps with another reservation");
+        if (officeIds.isEmpty()) {
+            return batchResults(errors, new Reservation[items.size()]);
         }
 
-        Reservation reservation = new Reservation();
-        reservation.setUser(user);
-        reservation.setOffice(office);
-        reservation.setStartTime(reservationDto.startTime());
-        reservation.setEndTime(reservationDto.endTime());
-        reservation.setBookedAt(LocalDate.now());
-        reservation.setStatus(ReservationStatus.PENDING);
-        reservation.setPaymentType(reservationDto.paymentType());
-        double priceMultiplier = trafficStatisticService.calculateMultiplier(reservationDto.startTime(), reservationDto.endTime());
-        reservation.setPriceMultiplier(priceMultiplier);
-        reservation.setPricePerDay(office.getPrice());
-        reservation.setComments(reservationDto.comments());
-        if (reservationDto.comments() == null) {
-            reservation.setComments("");
-        }
-        reservation.setPaid(false);
+        LocalDate firstDay = from;
+        LocalDate lastDay = to;
+        return officeLocks.withLocks(officeIds, () -> inBookingTransaction(() -> {
+            Map<String, Office> offices = new HashMap<>();
+            officeRepository.findForBookingByIdIn(officeIds).forEach(office -> offices.put(office.getId(), office));
 
-        Reservation savedReservation = reservationRepository.save(reservation);
-        if (savedReservation.getId() == null) {
-            throw new RuntimeException("Failed to save reservation");
-        }
+            Map<String, IntervalTree> booked = new HashMap<>();
+            for (ReservationPeriod period : reservationRepository.findActivePeriodsByOfficeIdInBetween(officeIds, firstDay, lastDay)) {
+                booked.computeIfAbsent(period.getOfficeId(), officeId -> new IntervalTree())
+                        .insert(period.getId(), period.getStartTime().toEpochDay(), period.getEndTime().toEpochDay());
+            }
 
-        return ReservationDto.valueFrom(reservation);
+            Map<List<LocalDate>, Double> multipliers = new HashMap<>();
+            Reservation[] reservations = new Reservation[items.size()];
+            for (int i = 0; i < items.size(); i++) {
+                if (errors[i] != null) {
+                    continue;
+                }
+                ReservationBatchItemDto item = items.get(i);
+                Office office = offices.get(item.officeId());
+                if (office == null || office.isDeleted()) {
+                    errors[i] = office == null ? "Office not found" : "Office is deleted";
+                    continue;
+                }
+                IntervalTree officeBookings = booked.computeIfAbsent(item.officeId(), officeId -> new IntervalTree());
+                long start = item.startTime().toEpochDay();
+                long end = item.endTime().toEpochDay();
+                if (officeBookings.overlaps(start, end, null)) {
+                    errors[i] = "Reservation overlaps with another reservation";
+                    continue;
+                }
+                officeBookings.insert("batch-" + i, start, end);
+
+                double priceMultiplier = multipliers.computeIfAbsent(List.of(item.startTime(), item.endTime()),
+                        range -> pricingEngine.priceMultiplier(range.get(0), range.get(1)));
+                reservations[i] = newReservation(user, office, item.startTime(), item.endTime(),
+                        item.paymentType(), item.comments(), priceMultiplier, holdExpiresAt(item.paymentType(), holdTtlMillis));
+            }
+            if (batchMode == BatchMode.ALL_OR_NOTHING) {
+                rejectIfAnyFailed(errors);
+            }
+
+            for (Reservation reservation : reservations) {
+                if (reservation != null) {
+                    saveAndPublish(null, reservation);
+                }
+            }
+            return batchResults(errors, reservations);
+        }));
     }
 
-    public List<ReservationDto> getReservations(User user,
-                                                String sortBy,
-                                                boolean ascending,
-                                                ReservationFilter filter,
-                                                Integer page,
-                                                Integer pageSize) {
-        Sort sort = Sort.unsorted();
-
-        if (sortBy != null) {
-            SortStrategy sortStrategy = new ReservationSortStrategy();
-            sort = sortStrategy.getSort(sortBy, ascending);
+    /**
+     * Prices date ranges for an office as {@link #createReservation} would, without creating anything.
+     */
+    public List<QuoteDto> quoteReservations(String officeId, List<QuoteDto> ranges) {
+        Office office = officeRepository.findById(officeId).orElseThrow(() -> new ResourceNotFoundException("Office not found"));
+        if (office.isDeleted()) {
+            throw new ArgumentException("Office is deleted");
+        }
+        if (ranges.size() > MAX_QUOTES) {
+            throw new ArgumentException("At most " + MAX_QUOTES + " ranges can be quoted at once");
         }
 
-        PageRequest pageRequest = PageRequest.of(page, pageSize, sort);
+        List<QuoteDto> quotes = new ArrayList<>(ranges.size());
+        for (QuoteDto range : ranges) {
+            if (range == null || range.startTime() == null || range.endTime() == null) {
+                throw new ArgumentException("Start time and end time must be set");
+            }
+            if (range.startTime().isBefore(LocalDate.now())) {
+                throw new ArgumentException("Reservation cannot be in the past");
+            }
+            if (!range.startTime().isBefore(range.endTime())) {
+                throw new ArgumentException("Start time must be before end time");
+            }
+            long duration = ChronoUnit.DAYS.between(range.startTime(), range.endTime());
+            double priceMultiplier = pricingEngine.priceMultiplier(range.startTime(), range.endTime());
+            double totalPrice = Math.round(duration * office.getPrice() * priceMultiplier * 100.0) / 100.0;
+            quotes.add(new QuoteDto(range.startTime(), range.endTime(), duration, office.getPrice(), priceMultiplier, totalPrice));
+        }
+        return quotes;
+    }
 
-        List<Reservation> reservations = reservationRepository.findAllByUserWithFilters(user, pageRequest, filter);
-        return reservations.stream().map(ReservationDto::valueFrom).toList();
+    public CursorPage<ReservationDto> getReservations(User user,
+                                                      String sortBy,
+                                                      boolean ascending,
+                                                      ReservationFilter filter,
+                                                      Integer page,
+                                                      Integer pageSize,
+                                                      String cursor) {
+        return findReservations(user, sortBy, ascending, filter, page, pageSize, cursor);
     }
 
     public ReservationDto getReservation(String id, User user) {
@@ -105,165 +249,290 @@ public class ReservationService {
     }
 
     public ReservationDto cancelReservation(String id, User user) {
-        Reservation reservation = reservationRepository.findByIdAndUser(id, user).orElseThrow(
+        return cancel(() -> reservationRepository.findByIdAndUser(id, user).orElseThrow(
                 () -> new ResourceNotFoundException("Reservation not found")
-        );
-
-        if (reservation.getStatus() == ReservationStatus.CANCELLED) {
-            throw new ArgumentException("Reservation is already cancelled");
-        }
-        reservation.setStatus(ReservationStatus.CANCELLED);
-        Reservation savedReservation = reservationRepository.save(reservation);
-        if (savedReservation.getId() == null) {
-            throw new RuntimeException("Failed to save reservation");
-        }
-        return ReservationDto.valueFrom(reservation);
+        ));
     }
 
+    /**
+     * Pays a reservation, which ends its hold. A reservation starting today may already be ongoing while it is held,
+     * so ongoing reservations can be paid too. The payment and the release of an expired hold are serialized like
+     * bookings, so a reservation is never both paid and released.
+     */
     public ReservationDto payReservation(String id, User user) {
 
-        Reservation reservation = reservationRepository.findByIdAndUser(id, user).orElseThrow(
+        Reservation found = reservationRepository.findByIdAndUser(id, user).orElseThrow(
                 () -> new ResourceNotFoundException("Reservation not found")
         );
+        String officeId = found.getOffice().getId();
 
-        if (reservation.isPaid()) {
-            throw new ArgumentException("Reservation is already paid");
-        }
-        if (reservation.getPaymentType() == PaymentType.CASH) {
-            throw new ArgumentException("You cannot pay online for cash reservations");
-        }
-        if(reservation.getStatus() != ReservationStatus.PENDING) {
-            throw new ArgumentException("Reservation must be pending to be paid");
-        }
-        reservation.setPaid(true);
-        reservation.setPaidAt(LocalDate.now());
+        return officeLocks.withLock(officeId, () -> inBookingTransaction(() -> {
+            officeRepository.findForBookingById(officeId);
+            Reservation reservation = reservationRepository.findByIdAndUser(id, user).orElseThrow(
+                    () -> new ResourceNotFoundException("Reservation not found")
+            );
+            ReservationSnapshot previous = ReservationSnapshot.of(reservation);
 
-        Reservation savedReservation = reservationRepository.save(reservation);
-        if (savedReservation.getId() == null) {
-            throw new RuntimeException("Failed to save reservation");
-        }
+            if (reservation.isPaid()) {
+                throw new ArgumentException("Reservation is already paid");
+            }
+            if (reservation.getPaymentType() == PaymentType.CASH) {
+                throw new ArgumentException("You cannot pay online for cash reservations");
+            }
+            if (reservation.getStatus() != ReservationStatus.PENDING && reservation.getStatus() != ReservationStatus.ONGOING) {
+                throw new ArgumentException("Reservation must be pending or ongoing to be paid");
+            }
+            if (reservation.getHoldExpiresAt() != null && !reservation.getHoldExpiresAt().isAfter(Instant.now())) {
+                throw new ArgumentException("The reservation was not paid in time and has been released");
+            }
+            reservation.setPaid(true);
+            reservation.setPaidAt(LocalDate.now());
+            reservation.setHoldExpiresAt(null);
 
-        return ReservationDto.valueFrom(reservation);
+            saveAndPublish(previous, reservation);
+
+            return ReservationDto.valueFrom(reservation);
+        }));
     }
 
-    public ReservationDto updateReservation(String id, ReservationDto reservationDto, User user) {
+    /**
+     * Cancels a reservation whose hold has expired without a payment, freeing its dates.
+     *
+     * @return true if the reservation was released, false if it was paid, cancelled or its hold was extended meanwhile
+     */
+    public boolean releaseExpiredHold(String id) {
+        String officeId = reservationRepository.findById(id).map(reservation -> reservation.getOffice().getId()).orElse(null);
+        if (officeId == null) {
+            return false;
+        }
+
+        return officeLocks.withLock(officeId, () -> inBookingTransaction(() -> {
+            Reservation reservation = reservationRepository.findById(id).orElse(null);
+            if (reservation == null) {
+                return false;
+            }
+            ReservationSnapshot previous = ReservationSnapshot.of(reservation);
+            if (!previous.isHeld() || reservation.getHoldExpiresAt().isAfter(Instant.now())) {
+                return false;
+            }
+            officeRepository.findForBookingById(officeId);
+            reservation.setStatus(ReservationStatus.CANCELLED);
+            saveAndPublish(previous, reservation);
+            return true;
+        }));
+    }
 
-        Reservation reservation = reservationRepository.findByIdAndUser(id, user).orElseThrow(
-                () -> new ResourceNotFoundException("Reservation not found")
-        );
+    public ReservationDto updateReservation(String id, ReservationDto reservationDto, User user) {
+        return rebook(() -> {
+            Reservation reservation = reservationRepository.findByIdAndUser(id, user).orElseThrow(
+                    () -> new ResourceNotFoundException("Reservation not found")
+            );
+            if (reservation.getStatus() != ReservationStatus.PENDING) {
+                throw new ArgumentException("Reservation must be pending to be updated");
+            }
+            return reservation;
+        }, reservationDto);
+    }
 
-        if (reservation.getStatus() != ReservationStatus.PENDING) {
-            throw new ArgumentException("Reservation must be pending to be updated");
-        }
+    public CursorPage<ReservationDto> getAdminReservations(User currentUser, String sortBy, boolean ascending, ReservationFilter filter,
+                                                           Integer page, Integer pageSize, String cursor) {
+        return findReservations(null, sortBy, ascending, filter, page, pageSize, cursor);
+    }
 
-        LocalDate newStartTime = reservationDto.startTime() != null ? reservationDto.startTime() : reservation.getStartTime();
-        LocalDate newEndTime = reservationDto.endTime() != null ? reservationDto.endTime() : reservation.getEndTime();
+    public ReservationDto getAdminReservation(String id, User currentUser) {
+        return ReservationDto.valueFrom(reservationRepository.findById(id).orElseThrow(
+                () -> new ResourceNotFoundException("Reservation not found"))
+        );
+    }
 
-        if (newStartTime.isBefore(LocalDate.now()) || newEndTime.isBefore(LocalDate.now())) {
-            throw new ArgumentException("Reservation dates cannot be in the past");
-        }
+    public ReservationDto updateAdminReservation(String id, ReservationDto reservationDto, User currentUser) {
+        return rebook(() -> reservationRepository.findById(id).orElseThrow(
+                () -> new ResourceNotFoundException("Reservation not found")
+        ), reservationDto);
+    }
 
-        if (newStartTime.isAfter(newEndTime)) {
-            throw new ArgumentException("Start time cannot be after end time");
-        }
+    public ReservationDto cancelAdminReservation(String id, User currentUser) {
+        return cancel(() -> reservationRepository.findById(id).orElseThrow(
+                () -> new ResourceNotFoundException("Reservation not found")
+        ));
+    }
 
-        if (!newStartTime.equals(reservation.getStartTime()) || !newEndTime.equals(reservation.getEndTime())) {
-            if (reservationRepository.existsOverlappingReservationExcluding(reservation.getOffice().getId(), reservation.getId(), newStartTime, newEndTime)) {
-                throw new ArgumentException("Updated reservation dates overlap with another reservation");
-            }
+    static void validateNewReservation(LocalDate startTime, LocalDate endTime, PaymentType paymentType) {
+        if (startTime == null || endTime == null) {
+            throw new ArgumentException("Start time and end time must be set");
         }
-
-        if (reservationDto.startTime() != null) {
-            reservation.setStartTime(reservationDto.startTime());
+        if (paymentType == null) {
+            throw new ArgumentException("Payment type must be set");
         }
-        if (reservationDto.endTime() != null) {
-            reservation.setEndTime(reservationDto.endTime());
+        if(startTime.isBefore(LocalDate.now()) || endTime.isBefore(LocalDate.now())) {
+            throw new ArgumentException("Reservation cannot be in the past");
         }
-        if (reservationDto.comments() != null) {
-            reservation.setComments(reservationDto.comments());
+        if(startTime.isAfter(endTime)) {
+            throw new ArgumentException("Start time cannot be after end time");
         }
-
-        Reservation savedReservation = reservationRepository.save(reservation);
-        if (savedReservation.getId() == null) {
-            throw new RuntimeException("Failed to save reservation");
+        if (startTime.isEqual(endTime)) {
+            throw new ArgumentException("Start time cannot be equal to end time");
         }
+    }
 
-        return ReservationDto.valueFrom(reservation);
+    private static Reservation newReservation(User user, Office office, LocalDate startTime, LocalDate endTime,
+                                              PaymentType paymentType, String comments, double priceMultiplier,
+                                              Instant holdExpiresAt) {
+        Reservation reservation = new Reservation();
+        reservation.setUser(user);
+        reservation.setOffice(office);
+        reservation.setStartTime(startTime);
+        reservation.setEndTime(endTime);
+        reservation.setBookedAt(LocalDate.now());
+        reservation.setStatus(ReservationStatus.PENDING);
+        reservation.setPaymentType(paymentType);
+        reservation.setPriceMultiplier(priceMultiplier);
+        reservation.setPricePerDay(office.getPrice());
+        reservation.setComments(comments != null ? comments : "");
+        reservation.setPaid(false);
+        reservation.setHoldExpiresAt(holdExpiresAt);
+        return reservation;
     }
 
-    public List<ReservationDto> getAdminReservations(User currentUser, String sortBy, boolean ascending, ReservationFilter filter, Integer page, Integer pageSize) {
-        Sort sort = Sort.unsorted();
+    /**
+     * @return when a new reservation is released unless it is paid, or null for cash reservations, which are paid on site
+     */
+    private static Instant holdExpiresAt(PaymentType paymentType, long holdMillis) {
+        return paymentType == PaymentType.CASH ? null : Instant.now().plusMillis(holdMillis);
+    }
 
-        if (sortBy != null) {
-            SortStrategy sortStrategy = new ReservationSortStrategy();
-            sort = sortStrategy.getSort(sortBy, ascending);
+    private static void rejectIfAnyFailed(String[] errors) {
+        StringJoiner message = new StringJoiner("; ", "No reservation was created: ", "");
+        message.setEmptyValue("");
+        for (int i = 0; i < errors.length; i++) {
+            if (errors[i] != null) {
+                message.add("reservation " + i + ": " + errors[i]);
+            }
+        }
+        if (!message.toString().isEmpty()) {
+            throw new ArgumentException(message.toString());
         }
-
-        PageRequest pageRequest = PageRequest.of(page, pageSize, sort);
-
-        List<Reservation> reservations = reservationRepository.findAllWithFilters(pageRequest, filter);
-        return reservations.stream().map(ReservationDto::valueFrom).toList();
     }
 
-    public ReservationDto getAdminReservation(String id, User currentUser) {
-        return ReservationDto.valueFrom(reservationRepository.findById(id).orElseThrow(
-                () -> new ResourceNotFoundException("Reservation not found"))
-        );
+    private static List<ReservationBatchResultDto> batchResults(String[] errors, Reservation[] reservations) {
+        List<ReservationBatchResultDto> results = new ArrayList<>(errors.length);
+        for (int i = 0; i < errors.length; i++) {
+            ReservationDto reservation = reservations[i] != null ? ReservationDto.valueFrom(reservations[i]) : null;
+            results.add(new ReservationBatchResultDto(i, reservation, errors[i]));
+        }
+        return results;
     }
 
-    public ReservationDto updateAdminReservation(String id, ReservationDto reservationDto, User currentUser) {
-        Reservation reservation = reservationRepository.findById(id).orElseThrow(
-                () -> new ResourceNotFoundException("Reservation not found")
-        );
+    private CursorPage<ReservationDto> findReservations(User user, String sortBy, boolean ascending, ReservationFilter filter,
+                                                       Integer page, Integer pageSize, String cursor) {
+        PageQuery pageQuery = PageQuery.of(new ReservationSortStrategy(), sortBy, ascending, page, pageSize, cursor);
+        return reservationRepository.findReservationPage(user, filter, pageQuery);
+    }
 
-        LocalDate newStartTime = reservationDto.startTime() != null ? reservationDto.startTime() : reservation.getStartTime();
-        LocalDate newEndTime = reservationDto.endTime() != null ? reservationDto.endTime() : reservation.getEndTime();
+    /**
+     * Cancels a reservation under the lock of its office. The reservation is loaded again inside the lock and the
+     * transaction, so a change committed meanwhile, e.g. the release of its hold, is not overwritten.
+     *
+     * @param loader finds the reservation, checking that the caller may cancel it
+     */
+    private ReservationDto cancel(Supplier<Reservation> loader) {
+        String officeId = loader.get().getOffice().getId();
+        return officeLocks.withLock(officeId, () -> inBookingTransaction(() -> {
+            Reservation reservation = loader.get();
+            ReservationSnapshot previous = ReservationSnapshot.of(reservation);
+
+            if (reservation.getStatus() == ReservationStatus.CANCELLED) {
+                throw new ArgumentException("Reservation is already cancelled");
+            }
+            reservation.setStatus(ReservationStatus.CANCELLED);
+            saveAndPublish(previous, reservation);
+            return ReservationDto.valueFrom(reservation);
+        }));
+    }
 
-        if (newStartTime.isBefore(LocalDate.now()) || newEndTime.isBefore(LocalDate.now())) {
-            throw new ArgumentException("Reservation dates cannot be in the past");
-        }
+    /**
+     * Applies an update to a reservation. Moving a reservation to other dates claims them like
+     * {@link #createReservation} does, under the office lock and with the office version incremented.
+     * The reservation is loaded again inside the lock and the transaction, like in {@link #cancel}.
+     *
+     * @param loader finds the reservation, checking that the caller may update it
+     */
+    private ReservationDto rebook(Supplier<Reservation> loader, ReservationDto reservationDto) {
+        String officeId = loader.get().getOffice().getId();
+        return officeLocks.withLock(officeId, () -> inBookingTransaction(() -> {
+            Reservation reservation = loader.get();
+            ReservationSnapshot previous = ReservationSnapshot.of(reservation);
+
+            LocalDate newStartTime = reservationDto.startTime() != null ? reservationDto.startTime() : reservation.getStartTime();
+            LocalDate newEndTime = reservationDto.endTime() != null ? reservationDto.endTime() : reservation.getEndTime();
+
+            if (newStartTime.isBefore(LocalDate.now()) || newEndTime.isBefore(LocalDate.now())) {
+                throw new ArgumentException("Reservation dates cannot be in the past");
+            }
 
-        if (newStartTime.isAfter(newEndTime)) {
-            throw new ArgumentException("Start time cannot be after end time");
-        }
+            if (newStartTime.isAfter(newEndTime)) {
+                throw new ArgumentException("Start time cannot be after end time");
+            }
 
-        if (!newStartTime.equals(reservation.getStartTime()) || !newEndTime.equals(reservation.getEndTime())) {
-            if (reservationRepository.existsOverlappingReservationExcluding(reservation.getOffice().getId(), reservation.getId(), newStartTime, newEndTime)) {
-                throw new ArgumentException("Updated reservation dates overlap with another reservation");
+            if (!newStartTime.equals(reservation.getStartTime()) || !newEndTime.equals(reservation.getEndTime())) {
+                Office office = officeRepository.findForBookingById(officeId).orElseThrow(() -> new ResourceNotFoundException("Office not found"));
+                if (reservationIntervalIndex.overlaps(office, newStartTime, newEndTime, reservation.getId())) {
+                    throw new ArgumentException("Updated reservation dates overlap with another reservation");
+                }
             }
-        }
 
-        if (reservationDto.startTime() != null) {
-            reservation.setStartTime(reservationDto.startTime());
-        }
-        if (reservationDto.endTime() != null) {
-            reservation.setEndTime(reservationDto.endTime());
-        }
-        if (reservationDto.comments() != null) {
-            reservation.setComments(reservationDto.comments());
-        }
+            if (reservationDto.startTime() != null) {
+                reservation.setStartTime(reservationDto.startTime());
+            }
+            if (reservationDto.endTime() != null) {
+                reservation.setEndTime(reservationDto.endTime());
+            }
+            if (reservationDto.startTime() != null || reservationDto.endTime() != null) {
+                reservation.setPriceMultiplier(pricingEngine.priceMultiplier(reservation.getStartTime(), reservation.getEndTime()));
+            }
+            if (reservationDto.comments() != null) {
+                reservation.setComments(reservationDto.comments());
+            }
 
-        Reservation savedReservation = reservationRepository.save(reservation);
-        if (savedReservation.getId() == null) {
-            throw new RuntimeException("Failed to save reservation");
-        }
+            Reservation savedReservation = saveAndPublish(previous, reservation);
 
-        return ReservationDto.valueFrom(reservation);
+            return ReservationDto.valueFrom(savedReservation);
+        }));
     }
 
-    public ReservationDto cancelAdminReservation(String id, User currentUser) {
-        Reservation reservation = reservationRepository.findById(id).orElseThrow(
-                () -> new ResourceNotFoundException("Reservation not found")
-        );
-
-        if (reservation.getStatus() == ReservationStatus.CANCELLED) {
-            throw new ArgumentException("Reservation is already cancelled");
+    /**
+     * Runs a change to the bookings of an office in a transaction. A concurrent booking of the same office by another
+     * instance makes the commit fail on the office version, and a concurrent change of the same reservation, e.g. by
+     * the lifecycle job, on the reservation version; both are reported like an overlap.
+     */
+    private <T> T inBookingTransaction(Supplier<T> booking) {
+        try {
+            return transactionTemplate.execute(status -> booking.get());
+        } catch (OptimisticLockingFailureException e) {
+            throw new ArgumentException("The reservation was changed by another request at the same time, please try again");
         }
-        reservation.setStatus(ReservationStatus.CANCELLED);
+    }
+
+    /**
+     * Saves the reservation and publishes the change. Inside a transaction the event is published after the commit,
+     * so that the in-memory indexes never see a booking that is rolled back.
+     */
+    private Reservation saveAndPublish(ReservationSnapshot previous, Reservation reservation) {
         Reservation savedReservation = reservationRepository.save(reservation);
         if (savedReservation.getId() == null) {
             throw new RuntimeException("Failed to save reservation");
         }
-        return ReservationDto.valueFrom(reservation);
+        ReservationChangedEvent event = new ReservationChangedEvent(previous, ReservationSnapshot.of(savedReservation));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eventPublisher.publishEvent(event);
+                }
+            });
+        } else {
+            eventPublisher.publishEvent(event);
+        }
+        return savedReservation;
     }
 }
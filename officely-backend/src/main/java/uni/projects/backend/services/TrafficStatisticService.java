@@ -1,79 +1,189 @@
 package uni.projects.backend.services;
 
 
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import uni.projects.backend.dao.TrafficStatisticRepository;
 import uni.projects.backend.models.TrafficStatistic;
+import uni.projects.backend.models.VisitorMoments;
+import uni.projects.backend.services.index.TrafficStatisticIndex;
 
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.OptionalLong;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
+@Slf4j
 @Service
 public class TrafficStatisticService {
 
+    private static final String UPSERT_VISITORS =
+            "INSERT INTO traffic_statistic (date, visitors, deleted) VALUES (?, ?, false) " +
+            "ON DUPLICATE KEY UPDATE visitors = visitors + VALUES(visitors)";
+
     @Autowired
     private TrafficStatisticRepository trafficStatisticRepository;
 
+    @Autowired
+    private TrafficStatisticIndex trafficStatisticIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Map<LocalDate, LongAdder> pendingVisitors = new ConcurrentHashMap<>();
+
     private final double IMPACT = 0.5;
     private final double MIN_MULTIPLIER = 0.5;
 
 
+    /**
+     * Calculates the price multiplier of a date range from the busiest day of the range.
+     * <p>
+     * Ranges starting today or later are answered from {@link TrafficStatisticIndex} without querying the database.
+     */
     public Double calculateMultiplier(LocalDate startDate, LocalDate endDate) {
-        List<TrafficStatistic> trafficStatistics = trafficStatisticRepository.findAllByDateBetween(startDate, endDate);
-        if (trafficStatistics.isEmpty()) {
+        if (!trafficStatisticIndex.covers(startDate)) {
+            return calculateMultiplierFromDatabase(startDate, endDate);
+        }
+        OptionalLong maxVisitors = trafficStatisticIndex.maxVisitors(startDate, endDate);
+        VisitorMoments moments = trafficStatisticIndex.moments();
+        if (maxVisitors.isEmpty() || !isSpread(moments)) {
             return 1.0;
         }
+        return multiplier(maxVisitors.getAsLong(), moments.getAverage(), moments.getStandardDeviation());
+    }
 
-        Double averageSearches = trafficStatisticRepository.calculateAverageVisitorsFromDate(LocalDate.now());
-        Double standardDeviation = trafficStatisticRepository.calculateStandardDeviationFromDate(LocalDate.now());
+    /**
+     * Calculates the multiplier of every day in the range, as {@link #calculateMultiplier} would for that single day.
+     *
+     * @return the multipliers indexed by the day offset from startDate
+     */
+    public double[] calculateDailyMultipliers(LocalDate startDate, LocalDate endDate) {
+        double[] multipliers = new double[(int) ChronoUnit.DAYS.between(startDate, endDate) + 1];
+        Arrays.fill(multipliers, 1.0);
+
+        if (!trafficStatisticIndex.covers(startDate)) {
+            return calculateDailyMultipliersFromDatabase(startDate, endDate, multipliers);
+        }
+        VisitorMoments moments = trafficStatisticIndex.moments();
+        if (!isSpread(moments)) {
+            return multipliers;
+        }
+        for (int day = 0; day < multipliers.length; day++) {
+            OptionalLong visitors = trafficStatisticIndex.visitors(startDate.plusDays(day));
+            if (visitors.isPresent()) {
+                multipliers[day] = multiplier(visitors.getAsLong(), moments.getAverage(), moments.getStandardDeviation());
+            }
+        }
+        return multipliers;
+    }
 
-        if (averageSearches == null || standardDeviation == null || standardDeviation == 0) {
+    // ranges reaching into the past are not held by the index
+    private Double calculateMultiplierFromDatabase(LocalDate startDate, LocalDate endDate) {
+        Optional<Integer> maxVisitors = trafficStatisticRepository.maxVisitorsBetweenDates(startDate, endDate);
+        if (maxVisitors.isEmpty()) {
             return 1.0;
         }
-
-
-        Optional<Integer> searchesForEndDateOpt = trafficStatisticRepository.maxVisitorsBetweenDates(startDate, endDate);
-        if (searchesForEndDateOpt.isEmpty()) {
+        VisitorMoments moments = trafficStatisticRepository.calculateVisitorMomentsFromDate(LocalDate.now());
+        if (!isSpread(moments)) {
             return 1.0;
         }
-        int searchesForEndDate = searchesForEndDateOpt.get();
+        return multiplier(maxVisitors.get(), moments.getAverage(), moments.getStandardDeviation());
+    }
+
+    private double[] calculateDailyMultipliersFromDatabase(LocalDate startDate, LocalDate endDate, double[] multipliers) {
+        List<TrafficStatistic> trafficStatistics = trafficStatisticRepository.findAllByDateBetween(startDate, endDate);
+        if (trafficStatistics.isEmpty()) {
+            return multipliers;
+        }
+        VisitorMoments moments = trafficStatisticRepository.calculateVisitorMomentsFromDate(LocalDate.now());
+        if (!isSpread(moments)) {
+            return multipliers;
+        }
+        for (TrafficStatistic trafficStatistic : trafficStatistics) {
+            int day = (int) ChronoUnit.DAYS.between(startDate, trafficStatistic.getDate());
+            multipliers[day] = multiplier(trafficStatistic.getVisitors(), moments.getAverage(), moments.getStandardDeviation());
+        }
+        return multipliers;
+    }
 
-        return Math.max(1 + ((searchesForEndDate - averageSearches) / standardDeviation) * IMPACT, MIN_MULTIPLIER);
+    private static boolean isSpread(VisitorMoments moments) {
+        return moments != null && moments.getAverage() != null && moments.getStandardDeviation() != null
+                && moments.getStandardDeviation() != 0;
     }
 
+    private double multiplier(long visitors, double averageSearches, double standardDeviation) {
+        return Math.max(1 + ((visitors - averageSearches) / standardDeviation) * IMPACT, MIN_MULTIPLIER);
+    }
 
-    public void incrementVisitorsBetweenDates(LocalDate startDate, LocalDate endDate) {
-        List<TrafficStatistic> trafficStatistics = trafficStatisticRepository.findAllByDateBetween(startDate, endDate);
-        Map<LocalDate, TrafficStatistic> statisticsMap = trafficStatistics.stream()
-                .collect(Collectors.toMap(TrafficStatistic::getDate, stat -> stat));
-
-        List<TrafficStatistic> updatedStatistics = new ArrayList<>();
-
-        LocalDate currentDate = startDate;
-        while (!currentDate.isAfter(endDate)) {
-            TrafficStatistic trafficStatistic = statisticsMap.get(currentDate);
-
-            if (trafficStatistic == null) {
-                trafficStatistic = new TrafficStatistic();
-                trafficStatistic.setDate(currentDate);
-                trafficStatistic.setVisitors(1);
-                trafficStatistic.setDeleted(false);
-            } else {
-                trafficStatistic.setVisitors(trafficStatistic.getVisitors() + 1);
-            }
 
-            updatedStatistics.add(trafficStatistic);
+    /**
+     * Counts one visitor for every day of the range.
+     * <p>
+     * The visit is only added to in-memory counters, {@link #flushVisitors()} writes them to the database.
+     */
+    public void incrementVisitorsBetweenDates(LocalDate startDate, LocalDate endDate) {
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            pendingVisitors.computeIfAbsent(date, key -> new LongAdder()).increment();
+        }
+    }
 
-            currentDate = currentDate.plusDays(1);
+    /**
+     * Adds the counted visitors to the statistics with one batched upsert and resets the counters.
+     * Counters of past days are dropped once they have been written, nothing increments them anymore.
+     * Written counts are also added to {@link TrafficStatisticIndex}.
+     * If the write fails, the counts are added back and written by the next flush.
+     */
+    @Scheduled(fixedDelayString = "${traffic.statistics.flush-interval-millis:10000}")
+    @PreDestroy
+    public synchronized void flushVisitors() {
+        Map<LocalDate, Long> drained = new TreeMap<>();
+        pendingVisitors.forEach((date, visitors) -> {
+            long count = visitors.sumThenReset();
+            if (count > 0) {
+                drained.put(date, count);
+            }
+        });
+        pendingVisitors.keySet().removeIf(date -> date.isBefore(LocalDate.now()) && !drained.containsKey(date));
+        if (drained.isEmpty()) {
+            return;
         }
 
-        trafficStatisticRepository.saveAll(updatedStatistics);
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_VISITORS, new ArrayList<>(drained.entrySet()), drained.size(),
+                    (statement, entry) -> {
+                        statement.setObject(1, entry.getKey());
+                        statement.setLong(2, entry.getValue());
+                    });
+            drained.forEach(trafficStatisticIndex::addVisitors);
+        } catch (DataAccessException e) {
+            log.error("Could not write {} visitor counters, retrying on next flush", drained.size(), e);
+            drained.forEach((date, count) -> pendingVisitors.computeIfAbsent(date, key -> new LongAdder()).add(count));
+        }
     }
 
-
+    /**
+     * Reloads {@link TrafficStatisticIndex} from the statistics table, so the counts flushed by other instances
+     * are priced in within one interval. It runs under the same lock as {@link #flushVisitors()}, so a flush
+     * cannot add counts to the index that the reload has already read from the table.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${traffic.statistics.reload-millis:60000}", initialDelayString = "${traffic.statistics.reload-millis:60000}")
+    public synchronized void reloadStatistics() {
+        trafficStatisticIndex.rebuild();
+    }
 }
@@ -6,6 +6,9 @@ import uni.projects.backend.exceptions.ArgumentException;
 import uni.projects.backend.exceptions.UnauthorizedException;
 import uni.projects.backend.exceptions.UserValidationException;
 import uni.projects.backend.models.user.User;
+import uni.projects.backend.services.auth.TokenRevocationList;
+import uni.projects.backend.services.cache.OfficeSearchCache;
+import uni.projects.backend.services.cache.UserCache;
 import uni.projects.backend.services.verification.VerificationService;
 import uni.projects.backend.web.UserDto;
 
@@ -17,9 +20,16 @@ import java.util.regex.Pattern;
 public class UserMainService implements UserService {
 
     protected final UserRepository userRepository;
+    protected final UserCache userCache;
+    protected final TokenRevocationList tokenRevocationList;
+    protected final OfficeSearchCache officeSearchCache;
 
-    public UserMainService(UserRepository userRepository) {
+    public UserMainService(UserRepository userRepository, UserCache userCache,
+                           TokenRevocationList tokenRevocationList, OfficeSearchCache officeSearchCache) {
         this.userRepository = userRepository;
+        this.userCache = userCache;
+        this.tokenRevocationList = tokenRevocationList;
+        this.officeSearchCache = officeSearchCache;
     }
 
     public boolean emailFormat(String email) {
@@ -53,15 +63,21 @@ public class UserMainService implements UserService {
             throw new UserValidationException("Invalid birth date");
         }
         User newUser = UserDto.convertToUser(user);
-        return userRepository.save(newUser);
+        User savedUser = userRepository.save(newUser);
+        userCache.evict(savedUser);
+        officeSearchCache.evictOwner(savedUser.getEmail());
+        return savedUser;
     }
 
     @Override
     public User getUserByEmailOrPhoneNumber(String data, VerificationService verification) {
-        Optional<User> user = userRepository.findByEmail(data);
-        if (user.isEmpty() || user.get().isDeleted()) {
-            user = userRepository.findByPhoneNumber(data);
-        }
+        Optional<User> user = Optional.ofNullable(userCache.get(data, () -> {
+            Optional<User> found = userRepository.findByEmail(data);
+            if (found.isEmpty() || found.get().isDeleted()) {
+                found = userRepository.findByPhoneNumber(data);
+            }
+            return found.orElse(null);
+        }));
         verifyUser(verification, user.orElse(null));
         if (user.isEmpty()) {
             throw new UserValidationException("User with email or phone number " + data + " not found");
@@ -69,10 +85,28 @@ public class UserMainService implements UserService {
         return user.get();
     }
 
+    @Override
+    public User getUserById(String id, VerificationService verification) {
+        User user = userRepository.findById(id).filter(found -> !found.isDeleted()).orElse(null);
+        verifyUser(verification, user);
+        if (user == null) {
+            throw new UserValidationException("User with id " + id + " not found");
+        }
+        return user;
+    }
+
+    @Override
+    public User getUserReference(String id) {
+        return userRepository.getReferenceById(id);
+    }
+
     @Override
     public boolean deleteUserByEmail(User currentUser, VerificationService verification) {
         currentUser.setDeleted(true);
         userRepository.save(currentUser);
+        userCache.evict(currentUser);
+        officeSearchCache.evictOwner(currentUser.getEmail());
+        tokenRevocationList.revoke(currentUser.getId());
         return currentUser.isDeleted();
     }
 
@@ -85,6 +119,9 @@ public class UserMainService implements UserService {
             currentUser.setSurname(user.surname());
         if(user.birthDate() != null)
             currentUser.setBirthDate(user.birthDate());
-        return userRepository.save(currentUser);
+        User savedUser = userRepository.save(currentUser);
+        userCache.evict(savedUser);
+        officeSearchCache.evictOwner(savedUser.getEmail());
+        return savedUser;
     }
 }
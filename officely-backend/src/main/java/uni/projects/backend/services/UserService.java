@@ -38,6 +38,24 @@ public interface UserService {
      */
     User getUserByEmailOrPhoneNumber(String email, VerificationService verification);
 
+    /**
+     * Loads a user already authenticated by ID, e.g. to check that the user was not deleted since.
+     *
+     * @param id the ID of the user
+     * @param verification the verification service to use
+     * @return the loaded user
+     */
+    User getUserById(String id, VerificationService verification);
+
+    /**
+     * Returns a reference to a user already authenticated by ID, loaded from the database only when its
+     * details are read.
+     *
+     * @param id the ID of the user
+     * @return the user reference
+     */
+    User getUserReference(String id);
+
     /**
      * Deletes a user by their email.
      *
@@ -0,0 +1,223 @@
+package uni.projects.backend.services;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import uni.projects.backend.dao.OfficeRepository;
+import uni.projects.backend.dao.WaitlistEntryRepository;
+import uni.projects.backend.events.ReservationChangedEvent;
+import uni.projects.backend.events.ReservationSnapshot;
+import uni.projects.backend.exceptions.ArgumentException;
+import uni.projects.backend.exceptions.ResourceNotFoundException;
+import uni.projects.backend.models.office.Office;
+import uni.projects.backend.models.reservation.WaitlistEntry;
+import uni.projects.backend.models.reservation.WaitlistStatus;
+import uni.projects.backend.models.user.User;
+import uni.projects.backend.services.index.WaitlistIndex;
+import uni.projects.backend.web.ReservationDto;
+import uni.projects.backend.web.WaitlistEntryDto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Books freed date ranges for the users waiting for them.
+ * <p>
+ * Users put themselves on the waitlist of an office, or of any office of a city, for a date range. When a reservation
+ * is cancelled or moved, the entries overlapping the dates it freed are looked up in {@link WaitlistIndex} and, first
+ * come first served, the range of each entry is booked for its user until the freed dates are taken again. A booked
+ * entry is fulfilled with the ID of its reservation, which the user then pays like any other.
+ * <p>
+ * An entry is claimed and booked in one transaction: the claim only succeeds while the entry is still waiting, so an
+ * entry matched by two instances at once, or cancelled by its user meanwhile, is booked at most once, and a booking
+ * that fails releases the claim. Bookings made for the waitlist are held for {@code reservation.waitlist.hold-ttl-millis},
+ * longer than ordinary bookings, as the user did not book them right now and finds them in the waitlist entries.
+ * <p>
+ * Matching runs on a single background thread, outside the request and the transaction that freed the dates. The
+ * index is reloaded periodically to pick up the entries registered on other instances.
+ */
+@Slf4j
+@Service
+public class WaitlistService {
+
+    static final int MAX_WAITING_PER_USER = 20;
+    static final int MAX_ATTEMPTS_PER_RELEASE = 20;
+
+    private final ExecutorService matcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "waitlist-matcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    private WaitlistEntryRepository waitlistEntryRepository;
+
+    @Autowired
+    private OfficeRepository officeRepository;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private WaitlistIndex waitlistIndex;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${reservation.waitlist.hold-ttl-millis:86400000}")
+    private long holdTtlMillis;
+
+    public WaitlistEntryDto addEntry(WaitlistEntryDto entryDto, User user) {
+        ReservationService.validateNewReservation(entryDto.startTime(), entryDto.endTime(), entryDto.paymentType());
+
+        WaitlistEntry entry = new WaitlistEntry();
+        if (entryDto.officeId() != null) {
+            Office office = officeRepository.findById(entryDto.officeId()).orElseThrow(() -> new ResourceNotFoundException("Office not found"));
+            if (office.isDeleted()) {
+                throw new ArgumentException("Office is deleted");
+            }
+            entry.setOffice(office);
+        } else if (entryDto.city() != null && !entryDto.city().isBlank()) {
+            entry.setCity(entryDto.city().trim());
+            entry.setMaxPricePerDay(entryDto.maxPricePerDay());
+        } else {
+            throw new ArgumentException("Office ID or city must be set");
+        }
+        if (waitlistEntryRepository.countByUserAndStatus(user, WaitlistStatus.WAITING) >= MAX_WAITING_PER_USER) {
+            throw new ArgumentException("At most " + MAX_WAITING_PER_USER + " waitlist entries can be waiting at once");
+        }
+
+        entry.setUser(user);
+        entry.setStartTime(entryDto.startTime());
+        entry.setEndTime(entryDto.endTime());
+        entry.setPaymentType(entryDto.paymentType());
+        entry.setComments(entryDto.comments() != null ? entryDto.comments() : "");
+        entry.setStatus(WaitlistStatus.WAITING);
+        entry.setCreatedAt(Instant.now());
+
+        WaitlistEntry savedEntry = waitlistEntryRepository.save(entry);
+        waitlistIndex.add(savedEntry);
+        return WaitlistEntryDto.valueFrom(savedEntry);
+    }
+
+    public List<WaitlistEntryDto> getEntries(User user) {
+        return waitlistEntryRepository.findAllByUser(user, Sort.by(Sort.Direction.DESC, "createdAt")).stream()
+                .map(WaitlistEntryDto::valueFrom)
+                .toList();
+    }
+
+    public WaitlistEntryDto cancelEntry(String id, User user) {
+        WaitlistEntry entry = waitlistEntryRepository.findByIdAndUser(id, user).orElseThrow(
+                () -> new ResourceNotFoundException("Waitlist entry not found")
+        );
+        if (entry.getStatus() != WaitlistStatus.WAITING) {
+            throw new ArgumentException("Waitlist entry is no longer waiting");
+        }
+        Integer closed = transactionTemplate.execute(tx ->
+                waitlistEntryRepository.closeWaiting(List.of(id), WaitlistStatus.CANCELLED, null));
+        if (closed == null || closed == 0) {
+            throw new ArgumentException("Waitlist entry is no longer waiting");
+        }
+        waitlistIndex.remove(id);
+        entry.setStatus(WaitlistStatus.CANCELLED);
+        return WaitlistEntryDto.valueFrom(entry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${reservation.waitlist.reload-millis:60000}", initialDelayString = "${reservation.waitlist.reload-millis:60000}")
+    public void reload() {
+        List<WaitlistEntry> waiting = waitlistEntryRepository.findAllByStatus(WaitlistStatus.WAITING);
+        synchronized (waitlistIndex) {
+            waitlistIndex.clear();
+            waiting.forEach(waitlistIndex::add);
+        }
+        log.debug("Loaded {} waitlist entries", waiting.size());
+    }
+
+    @EventListener
+    public void onReservationChanged(ReservationChangedEvent event) {
+        ReservationSnapshot previous = event.previous();
+        if (previous == null || !previous.isActive() || !event.changesAvailability()) {
+            return;
+        }
+        matcher.execute(() -> matchFreed(previous.officeId(), previous.startTime(), previous.endTime()));
+    }
+
+    @Scheduled(cron = "${reservation.waitlist.expiry-cron:0 5 0 * * *}")
+    public void expire() {
+        List<String> ids = waitlistEntryRepository.findWaitingIdsStartingBefore(LocalDate.now());
+        if (ids.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(tx ->
+                waitlistEntryRepository.closeWaiting(ids, WaitlistStatus.EXPIRED, null));
+        ids.forEach(waitlistIndex::remove);
+        log.info("Expired {} waitlist entries", ids.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        matcher.shutdownNow();
+    }
+
+    /**
+     * Books the freed dates of an office for the entries waiting for them, oldest first.
+     */
+    private void matchFreed(String officeId, LocalDate startTime, LocalDate endTime) {
+        Office office = officeRepository.findById(officeId).orElse(null);
+        if (office == null || office.isDeleted()) {
+            return;
+        }
+        List<String> candidates = waitlistIndex.match(officeId, office.getCity(), startTime, endTime);
+        int attempts = 0;
+        for (String id : candidates) {
+            if (attempts == MAX_ATTEMPTS_PER_RELEASE) {
+                break;
+            }
+            WaitlistEntry entry = waitlistEntryRepository.findById(id).orElse(null);
+            if (entry == null || entry.getStatus() != WaitlistStatus.WAITING || entry.getStartTime().isBefore(LocalDate.now())) {
+                waitlistIndex.remove(id);
+                continue;
+            }
+            if (entry.getMaxPricePerDay() != null && office.getPrice() > entry.getMaxPricePerDay()) {
+                continue;
+            }
+
+            attempts++;
+            try {
+                ReservationDto reservation = transactionTemplate.execute(tx -> {
+                    if (waitlistEntryRepository.closeWaiting(List.of(id), WaitlistStatus.FULFILLED, null) != 1) {
+                        return null;
+                    }
+                    ReservationDto booked = reservationService.createReservation(new ReservationDto(null, null,
+                            entry.getStartTime(), entry.getEndTime(), null, null, null, null, entry.getPaymentType(),
+                            0, 0, entry.getComments(), false, null), entry.getUser(), officeId, holdTtlMillis);
+                    waitlistEntryRepository.updateReservationId(id, booked.id());
+                    return booked;
+                });
+                waitlistIndex.remove(id);
+                if (reservation == null) {
+                    // Claimed by another instance or cancelled by its user
+                    continue;
+                }
+                log.info("Booked reservation {} for waitlist entry {}", reservation.id(), id);
+            } catch (ArgumentException | ResourceNotFoundException | OptimisticLockingFailureException e) {
+                // The range of the entry is still partly taken, it keeps waiting
+                log.debug("Waitlist entry {} could not be booked: {}", id, e.getMessage());
+            } catch (RuntimeException e) {
+                log.warn("Could not book waitlist entry {}", id, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,371 @@
+package uni.projects.backend.services.analytics;
+
+import jakarta.persistence.Tuple;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.dao.DataAccessException;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import uni.projects.backend.dao.CubeStaleMarkerRepository;
+import uni.projects.backend.dao.OfficeDayStatisticRepository;
+import uni.projects.backend.dao.ReservationRepository;
+import uni.projects.backend.events.ReservationChangedEvent;
+import uni.projects.backend.events.ReservationSnapshot;
+import uni.projects.backend.exceptions.ArgumentException;
+import uni.projects.backend.models.analytics.CubeStaleMarker;
+import uni.projects.backend.models.analytics.OfficeDayKey;
+import uni.projects.backend.models.analytics.RollupDimension;
+import uni.projects.backend.models.analytics.RollupPeriod;
+import uni.projects.backend.models.reservation.PaymentType;
+import uni.projects.backend.services.lock.LeaderElection;
+import uni.projects.backend.web.ReservationRollupDto;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Maintains the reservation cube, {@link uni.projects.backend.models.analytics.OfficeDayStatistic}, and answers
+ * roll-ups from it.
+ * <p>
+ * Every {@link ReservationChangedEvent} removes the contribution of the previous state of the reservation and adds
+ * the one of the current state, so only the changed cells are written, with one batched upsert. The upserts run on a
+ * single background thread, in the order of the events, so a failing cube write never fails the request that
+ * changed the reservation, nor keeps the event from other listeners.
+ * <p>
+ * The cube is built from all reservations on startup when it is empty, and is rebuilt on demand, on a schedule, and
+ * soon after a change could not be applied or reservations were changed without an event, e.g. by the price
+ * backfill. That the cube is stale is also recorded in the database by a {@link CubeStaleMarker}, so any instance
+ * rebuilds it, also after a restart; on shutdown the queued changes are written before the writer stops.
+ * <p>
+ * A rebuild recomputes the cube office by office, each in its own transaction, so neither the cells held in memory
+ * nor the rows locked grow with the whole cube. Changes applied by this instance wait for the office being rebuilt;
+ * changes applied by other instances while it reads the reservations may be missed or counted twice until the next
+ * scheduled rebuild corrects them.
+ */
+@Slf4j
+@Service
+public class ReservationAnalyticsService {
+
+    static final String LEASE = "reservation-analytics-rebuild";
+    private static final long MAX_ROLLUP_DAYS = 10 * 366;
+
+    private static final String UPSERT_CELL =
+            "INSERT INTO office_day_statistic (office_id, date, payment_type, booked_days, revenue, cancellations) " +
+            "VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE booked_days = booked_days + VALUES(booked_days), " +
+            "revenue = revenue + VALUES(revenue), cancellations = cancellations + VALUES(cancellations)";
+
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "reservation-cube-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean stale = false;
+
+    @Value("${reservation.analytics.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${reservation.analytics.shutdown-timeout-millis:30000}")
+    private long shutdownTimeoutMillis;
+
+    @Value("${reservation.lifecycle.lease-millis:300000}")
+    private long leaseMillis;
+
+    @Autowired
+    private OfficeDayStatisticRepository officeDayStatisticRepository;
+
+    @Autowired
+    private CubeStaleMarkerRepository cubeStaleMarkerRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private LeaderElection leaderElection;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @EventListener
+    public void onReservationChanged(ReservationChangedEvent event) {
+        Map<OfficeDayKey, Cell> cells = new HashMap<>();
+        if (event.previous() != null) {
+            contribute(cells, event.previous(), -1);
+        }
+        contribute(cells, event.current(), 1);
+        cells.values().removeIf(Cell::isEmpty);
+        if (cells.isEmpty()) {
+            return;
+        }
+
+        writer.execute(() -> {
+            rebuildLock.readLock().lock();
+            try {
+                upsert(cells);
+            } catch (RuntimeException e) {
+                markStale();
+                log.error("Could not update the reservation cube for reservation {}, it will be rebuilt",
+                        event.current().id(), e);
+            } finally {
+                rebuildLock.readLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Marks the cube as no longer matching the reservations, e.g. after they were changed without an event.
+     * It is rebuilt by the next {@link #rebuildIfStale()} of any instance.
+     */
+    public void markStale() {
+        stale = true;
+        try {
+            transactionTemplate.executeWithoutResult(tx ->
+                    cubeStaleMarkerRepository.save(new CubeStaleMarker(LEASE, Instant.now())));
+        } catch (DataAccessException e) {
+            log.error("Could not record that the reservation cube is stale, only this instance will rebuild it", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${reservation.analytics.stale-check-millis:300000}",
+            initialDelayString = "${reservation.analytics.stale-check-millis:300000}")
+    public void rebuildIfStale() {
+        if (stale || cubeStaleMarkerRepository.existsById(LEASE)) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(cron = "${reservation.analytics.rebuild-cron:0 0 4 * * *}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * Writes the queued changes before the application stops. If they cannot be written in time, the cube is
+     * marked stale so that it is rebuilt after the restart.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        writer.shutdown();
+        if (!writer.awaitTermination(shutdownTimeoutMillis, TimeUnit.MILLISECONDS)) {
+            int dropped = writer.shutdownNow().size();
+            log.warn("Reservation cube writer did not finish in time, {} queued changes were dropped", dropped);
+            markStale();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIfEmpty() {
+        if (officeDayStatisticRepository.count() == 0 && reservationRepository.count() > 0) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Recomputes the whole cube from the reservations, office by office, unless another instance is already doing so.
+     *
+     * @return true if the cube was rebuilt
+     */
+    public boolean rebuild() {
+        if (!leaderElection.tryAcquire(LEASE, Duration.ofMillis(leaseMillis))) {
+            return false;
+        }
+        Instant started = Instant.now();
+        stale = false;
+        try {
+            int offices = 0;
+            String after = "";
+            List<String> officeIds;
+            do {
+                officeIds = reservationRepository.findReservedOfficeIdsAfter(after, PageRequest.of(0, chunkSize));
+                for (String officeId : officeIds) {
+                    rebuildOffice(officeId);
+                }
+                offices += officeIds.size();
+                if (!officeIds.isEmpty()) {
+                    after = officeIds.get(officeIds.size() - 1);
+                    if (!leaderElection.tryAcquire(LEASE, Duration.ofMillis(leaseMillis))) {
+                        throw new IllegalStateException("Lost the lease " + LEASE + " while rebuilding the reservation cube");
+                    }
+                }
+            } while (officeIds.size() == chunkSize);
+            transactionTemplate.executeWithoutResult(tx ->
+                    officeDayStatisticRepository.deleteStatisticsOfOfficesWithoutReservations());
+            transactionTemplate.executeWithoutResult(tx -> cubeStaleMarkerRepository.clear(LEASE, started));
+            log.info("Reservation cube rebuilt for {} offices", offices);
+            return true;
+        } catch (RuntimeException e) {
+            markStale();
+            throw e;
+        }
+    }
+
+    /**
+     * Replaces the cells of one office with the ones computed from its reservations.
+     */
+    private void rebuildOffice(String officeId) {
+        rebuildLock.writeLock().lock();
+        try {
+            Map<OfficeDayKey, Cell> cells = new HashMap<>();
+            reservationRepository.findSnapshotsByOfficeId(officeId).forEach(snapshot -> contribute(cells, snapshot, 1));
+            cells.values().removeIf(Cell::isEmpty);
+            transactionTemplate.executeWithoutResult(tx -> {
+                officeDayStatisticRepository.deleteStatisticsOfOffice(officeId);
+                upsert(cells);
+            });
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rolls the cube up between two dates (inclusive).
+     * The occupancy of a row is its booked days divided by the days the current offices of the row had in the period.
+     */
+    public List<ReservationRollupDto> rollup(RollupDimension dimension, RollupPeriod period, LocalDate from, LocalDate to) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new ArgumentException("Invalid date range provided");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_ROLLUP_DAYS) {
+            throw new ArgumentException("The date range can span at most " + MAX_ROLLUP_DAYS + " days");
+        }
+
+        Map<Object, Long> offices = new HashMap<>();
+        for (Tuple row : officeDayStatisticRepository.countOffices(dimension)) {
+            offices.put(row.get("dimension"), row.get("offices", Long.class));
+        }
+
+        Map<List<Object>, Rollup> rollups = new LinkedHashMap<>();
+        for (Tuple row : officeDayStatisticRepository.rollup(dimension, period, from, to)) {
+            Object key = row.get("dimension");
+            int year = ((Number) row.get("year")).intValue();
+            Integer month = period == RollupPeriod.MONTH ? ((Number) row.get("month")).intValue() : null;
+            Rollup rollup = rollups.computeIfAbsent(List.of(Objects.toString(key), year, month == null ? 0 : month),
+                    ignored -> new Rollup(key, year, month));
+            long bookedDays = ((Number) row.get("bookedDays")).longValue();
+            rollup.bookedDays += bookedDays;
+            rollup.revenue += ((Number) row.get("revenue")).doubleValue();
+            rollup.cancellations += ((Number) row.get("cancellations")).longValue();
+            if (bookedDays != 0) {
+                rollup.bookedDaysByPaymentType.merge(row.get("paymentType", PaymentType.class), bookedDays, Long::sum);
+            }
+        }
+
+        List<ReservationRollupDto> result = new ArrayList<>(rollups.size());
+        for (Rollup rollup : rollups.values()) {
+            long officeDays = offices.getOrDefault(rollup.key, 0L) * daysInPeriod(rollup, from, to);
+            result.add(new ReservationRollupDto(
+                    Objects.toString(rollup.key, null),
+                    rollup.year,
+                    rollup.month,
+                    rollup.bookedDays,
+                    Math.round(rollup.revenue * 100.0) / 100.0,
+                    rollup.cancellations,
+                    rollup.bookedDaysByPaymentType,
+                    officeDays > 0 ? (double) rollup.bookedDays / officeDays : 0.0
+            ));
+        }
+        return result;
+    }
+
+    /**
+     * @return the days of the period of the rollup that lie between the two dates
+     */
+    private static long daysInPeriod(Rollup rollup, LocalDate from, LocalDate to) {
+        LocalDate start = rollup.month != null ? LocalDate.of(rollup.year, rollup.month, 1) : LocalDate.of(rollup.year, 1, 1);
+        LocalDate end = rollup.month != null ? start.plusMonths(1) : start.plusYears(1);
+        if (start.isBefore(from)) {
+            start = from;
+        }
+        if (end.isAfter(to.plusDays(1))) {
+            end = to.plusDays(1);
+        }
+        return Math.max(0, ChronoUnit.DAYS.between(start, end));
+    }
+
+    /**
+     * Adds the cells of a reservation state, multiplied by the sign.
+     */
+    private static void contribute(Map<OfficeDayKey, Cell> cells, ReservationSnapshot snapshot, int sign) {
+        if (!snapshot.isActive()) {
+            cells.computeIfAbsent(new OfficeDayKey(snapshot.officeId(), snapshot.startTime(), snapshot.paymentType()),
+                    key -> new Cell()).cancellations += sign;
+            return;
+        }
+        if (snapshot.duration() <= 0) {
+            return;
+        }
+        double dailyRevenue = snapshot.totalPrice() / snapshot.duration();
+        for (LocalDate date = snapshot.startTime(); date.isBefore(snapshot.endTime()); date = date.plusDays(1)) {
+            Cell cell = cells.computeIfAbsent(new OfficeDayKey(snapshot.officeId(), date, snapshot.paymentType()),
+                    key -> new Cell());
+            cell.bookedDays += sign;
+            cell.revenue += sign * dailyRevenue;
+        }
+    }
+
+    private void upsert(Map<OfficeDayKey, Cell> cells) {
+        jdbcTemplate.batchUpdate(UPSERT_CELL, new ArrayList<>(cells.entrySet()), chunkSize, (statement, entry) -> {
+            OfficeDayKey key = entry.getKey();
+            Cell cell = entry.getValue();
+            statement.setString(1, key.getOfficeId());
+            statement.setObject(2, key.getDate());
+            statement.setString(3, key.getPaymentType().name());
+            statement.setLong(4, cell.bookedDays);
+            statement.setDouble(5, cell.revenue);
+            statement.setLong(6, cell.cancellations);
+        });
+    }
+
+    private static class Cell {
+        long bookedDays;
+        double revenue;
+        long cancellations;
+
+        boolean isEmpty() {
+            return bookedDays == 0 && cancellations == 0 && Math.abs(revenue) < 1e-9;
+        }
+    }
+
+    private static class Rollup {
+        final Object key;
+        final int year;
+        final Integer month;
+        final Map<PaymentType, Long> bookedDaysByPaymentType = new EnumMap<>(PaymentType.class);
+        long bookedDays;
+        double revenue;
+        long cancellations;
+
+        Rollup(Object key, int year, Integer month) {
+            this.key = key;
+            this.year = year;
+            this.month = month;
+        }
+    }
+}
@@ -19,6 +19,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import static uni.projects.backend.utils.GeoUtils.haversineDistance;
+
 @Service
 public class ParkingService {
 
@@ -26,7 +28,6 @@ public class ParkingService {
     private String parklyApiUrl;
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
-    private static final double EARTH_RADIUS = 6371.0;
     private final double MAX_DISTANCE = 3.0;
 
 
@@ -76,28 +77,10 @@ public class ParkingService {
             return false;
         }
 
-        double distance = calculateDistance(officeLatitude, officeLongitude, parkingLatitude, parkingLongitude);
+        double distance = haversineDistance(officeLatitude, officeLongitude, parkingLatitude, parkingLongitude);
         return distance <= MAX_DISTANCE;
     }
 
-    private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        double lat1Rad = Math.toRadians(lat1);
-        double lon1Rad = Math.toRadians(lon1);
-        double lat2Rad = Math.toRadians(lat2);
-        double lon2Rad = Math.toRadians(lon2);
-
-        double deltaLat = lat2Rad - lat1Rad;
-        double deltaLon = lon2Rad - lon1Rad;
-
-        double a = Math.sin(deltaLat / 2) * Math.sin(deltaLat / 2) +
-                Math.cos(lat1Rad) * Math.cos(lat2Rad) *
-                        Math.sin(deltaLon / 2) * Math.sin(deltaLon / 2);
-
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-
-        return EARTH_RADIUS * c;
-    }
-
     public List<ParkingSpotDto> getParkingSpots(Integer id) throws JsonProcessingException {
         String endpoint = parklyApiUrl + "/parking-spots/pa?paId=" + id;
 
@@ -0,0 +1,115 @@
+package uni.projects.backend.services.auth;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import uni.projects.backend.dao.TokenRevocationRepository;
+import uni.projects.backend.models.user.TokenRevocation;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Users whose tokens issued so far are no longer accepted, e.g. because they were deleted.
+ * <p>
+ * A revocation is only needed until the tokens it covers have expired, so it is kept for the token lifetime and
+ * the list stays small. Revocations are checked in memory; they are also stored in the {@code token_revocation}
+ * table, from which every instance loads the revocations made by the others on startup and then every few seconds.
+ * Until then, the tokens of a user revoked on another instance remain valid.
+ */
+@Slf4j
+@Service
+public class TokenRevocationList {
+
+    /**
+     * Revocations stored this long before the last load are read again, as their transactions may have committed
+     * after it.
+     */
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(5);
+
+    private final int maxEntries;
+    private final Duration retention;
+    private final Map<String, Instant> revokedAt;
+    private Instant syncedAt = null;
+
+    @Autowired
+    private TokenRevocationRepository tokenRevocationRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    public TokenRevocationList(@Value("${jwt.revocations.max-entries:100000}") int maxEntries,
+                               @Value("${jwt.ttl-millis:900000}") long tokenTtlMillis) {
+        this.maxEntries = maxEntries;
+        this.retention = Duration.ofMillis(tokenTtlMillis);
+        this.revokedAt = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Instant> eldest) {
+                return size() > TokenRevocationList.this.maxEntries
+                        || eldest.getValue().plus(retention).isBefore(Instant.now());
+            }
+        };
+    }
+
+    /**
+     * Rejects every token of the user issued until now, on this instance at once and on the others after their
+     * next {@link #sync()}.
+     */
+    public void revoke(String userId) {
+        Instant now = Instant.now();
+        put(userId, now);
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    tokenRevocationRepository.save(new TokenRevocation(userId, now)));
+        } catch (DataAccessException e) {
+            log.error("Could not store the revocation of user {}, other instances accept their tokens until they expire",
+                    userId, e);
+        }
+    }
+
+    /**
+     * Loads the revocations stored since the last load, including those made by other instances.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${jwt.revocations.sync-millis:5000}", initialDelayString = "${jwt.revocations.sync-millis:5000}")
+    public void sync() {
+        Instant started = Instant.now();
+        Instant since = syncedAt == null ? started.minus(retention) : syncedAt.minus(SYNC_OVERLAP);
+        for (TokenRevocation revocation : tokenRevocationRepository.findByRevokedAtGreaterThanEqual(since)) {
+            put(revocation.getUserId(), revocation.getRevokedAt());
+        }
+        syncedAt = started;
+    }
+
+    @Scheduled(cron = "${jwt.revocations.purge-cron:0 45 * * * *}")
+    public void purgeExpired() {
+        Integer purged = transactionTemplate.execute(status ->
+                tokenRevocationRepository.deleteRevokedBefore(Instant.now().minus(retention)));
+        log.debug("Purged {} expired token revocations", purged);
+    }
+
+    /**
+     * @return true if the token was issued to the user before the user was revoked
+     */
+    public synchronized boolean isRevoked(String userId, Instant issuedAt) {
+        Instant revoked = revokedAt.get(userId);
+        return revoked != null && !issuedAt.isAfter(revoked);
+    }
+
+    public synchronized int size() {
+        return revokedAt.size();
+    }
+
+    private synchronized void put(String userId, Instant revoked) {
+        Instant previous = revokedAt.remove(userId);
+        revokedAt.put(userId, previous != null && previous.isAfter(revoked) ? previous : revoked);
+    }
+}
@@ -0,0 +1,84 @@
+package uni.projects.backend.services.auth;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import uni.projects.backend.exceptions.UnauthorizedException;
+import uni.projects.backend.models.user.AuthenticatedUser;
+import uni.projects.backend.models.user.Roles;
+import uni.projects.backend.models.user.User;
+import uni.projects.backend.web.TokenDto;
+
+import javax.crypto.SecretKey;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+
+/**
+ * Issues and verifies signed bearer tokens carrying the ID and the role of a user, so that requests can be
+ * authorized without loading the user.
+ */
+@Service
+@Profile("jwt")
+public class TokenService {
+
+    private static final String ROLE_CLAIM = "role";
+
+    private final SecretKey key;
+    private final long ttlMillis;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    public TokenService(@Value("${jwt.secret}") String secret,
+                        @Value("${jwt.ttl-millis:900000}") long ttlMillis) {
+        this.key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        this.ttlMillis = ttlMillis;
+    }
+
+    public TokenDto issue(User user) {
+        Instant issuedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        Instant expiresAt = issuedAt.plusMillis(ttlMillis);
+        String token = Jwts.builder()
+                .subject(user.getId())
+                .claim(ROLE_CLAIM, user.getRole().name())
+                .issuedAt(Date.from(issuedAt))
+                .expiration(Date.from(expiresAt))
+                .signWith(key)
+                .compact();
+        return new TokenDto(token, expiresAt);
+    }
+
+    /**
+     * @throws UnauthorizedException if the token is malformed, not signed by this backend, expired or revoked
+     */
+    public AuthenticatedUser verify(String token) {
+        Claims claims;
+        try {
+            claims = Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new UnauthorizedException("Invalid or expired token");
+        }
+        if (claims.getSubject() == null || claims.getIssuedAt() == null || claims.get(ROLE_CLAIM) == null) {
+            throw new UnauthorizedException("Invalid or expired token");
+        }
+
+        Instant issuedAt = claims.getIssuedAt().toInstant();
+        if (tokenRevocationList.isRevoked(claims.getSubject(), issuedAt)) {
+            throw new UnauthorizedException("Token has been revoked");
+        }
+        Roles role;
+        try {
+            role = Roles.valueOf(claims.get(ROLE_CLAIM, String.class));
+        } catch (IllegalArgumentException e) {
+            throw new UnauthorizedException("Invalid or expired token");
+        }
+        return new AuthenticatedUser(claims.getSubject(), role, issuedAt);
+    }
+}
@@ -0,0 +1,292 @@
+package uni.projects.backend.services.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import uni.projects.backend.dao.IdempotencyClaimRepository;
+import uni.projects.backend.exceptions.ArgumentException;
+import uni.projects.backend.models.IdempotencyClaim;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of the responses of requests sent with an {@value #HEADER} header.
+ * <p>
+ * The first request with a key runs, every later request with the same key and caller gets the same response
+ * without running again, for the configured time after the first one finished. Duplicates that arrive while the
+ * first request is still running wait for its response instead of running concurrently. A request that fails is
+ * not remembered, so it can be retried with the same key; the duplicates waiting for it fail the same way.
+ * <p>
+ * A key can only be reused for the same request: the request is fingerprinted by its hash code and a different
+ * request with a known key is rejected.
+ * <p>
+ * Every first run claims the key in the {@code idempotency_claim} table before it starts and stores its response
+ * there as JSON when it finishes. A duplicate that reaches another instance, or this one after the entry was
+ * evicted, finds the claim and gets the stored response replayed; only a duplicate of a request that is still
+ * running on another instance is rejected. A failed request releases its claim, expired claims are purged
+ * periodically. Entries of running requests are never evicted, so their duplicates always wait for them.
+ */
+@Slf4j
+@Service
+public class IdempotencyCache {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final String CACHE_NAME = "idempotency";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final int maxEntries;
+    private final Duration ttl;
+    private final long ttlNanos;
+    private final Map<Key, Entry> entries;
+
+    private final Counter replays;
+    private final Counter executions;
+
+    @Autowired
+    private IdempotencyClaimRepository idempotencyClaimRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public IdempotencyCache(@Value("${idempotency.max-entries:10000}") int maxEntries,
+                            @Value("${idempotency.ttl-millis:86400000}") long ttlMillis,
+                            MeterRegistry meterRegistry) {
+        this.replays = meterRegistry.counter("cache.gets", "cache", CACHE_NAME, "result", "hit");
+        this.executions = meterRegistry.counter("cache.gets", "cache", CACHE_NAME, "result", "miss");
+        meterRegistry.gauge("cache.size", List.of(Tag.of("cache", CACHE_NAME)), this, IdempotencyCache::size);
+
+        this.maxEntries = maxEntries;
+        this.ttl = Duration.ofMillis(ttlMillis);
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() <= IdempotencyCache.this.maxEntries) {
+                    return false;
+                }
+                // Evicts the oldest finished entry, running ones are still awaited by their duplicates
+                Iterator<Entry> iterator = values().iterator();
+                while (iterator.hasNext()) {
+                    if (iterator.next().response.isDone()) {
+                        iterator.remove();
+                        return false;
+                    }
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Runs the request once per key and caller and returns its response.
+     *
+     * @param key the value of the {@value #HEADER} header, runs the request without caching if null
+     * @param caller identifies who sent the request, keys of different callers never collide
+     * @param request the request, equal requests must have equal hash codes
+     * @param responseType the type of the response, used to replay a stored response; null if it cannot be stored
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, String caller, Object request, Type responseType, Supplier<T> response) {
+        if (key == null) {
+            return response.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new ArgumentException(HEADER + " must have between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+
+        Key cacheKey = new Key(caller, key);
+        int fingerprint = Objects.hashCode(request);
+        Entry entry;
+        boolean first;
+        synchronized (this) {
+            entry = entries.get(cacheKey);
+            if (entry != null && entry.isExpired(System.nanoTime())) {
+                entries.remove(cacheKey);
+                entry = null;
+            }
+            first = entry == null;
+            if (first) {
+                entry = new Entry(fingerprint);
+                entries.put(cacheKey, entry);
+            } else if (entry.fingerprint != fingerprint) {
+                throw new ArgumentException(HEADER + " " + key + " was already used for a different request");
+            }
+        }
+
+        if (!first) {
+            replays.increment();
+            try {
+                return (T) entry.response.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        String claimId = claimId(caller, key);
+        boolean claimed = false;
+        try {
+            IdempotencyClaim existing = claim(claimId, fingerprint);
+            T result;
+            if (existing != null) {
+                replays.increment();
+                result = (T) replay(existing, fingerprint, key, responseType);
+            } else {
+                claimed = true;
+                executions.increment();
+                result = response.get();
+                store(claimId, result);
+            }
+            synchronized (this) {
+                entry.expiresAt = System.nanoTime() + ttlNanos;
+            }
+            entry.response.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                entries.remove(cacheKey, entry);
+            }
+            if (claimed) {
+                release(claimId);
+            }
+            entry.response.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @Scheduled(cron = "${idempotency.purge-cron:0 15 * * * *}")
+    public void purgeExpiredClaims() {
+        Integer purged = transactionTemplate.execute(status -> idempotencyClaimRepository.deleteExpired(Instant.now()));
+        log.debug("Purged {} expired idempotency claims", purged);
+    }
+
+    /**
+     * Claims the key for a first run.
+     *
+     * @return null if the key is now claimed by this request, otherwise the claim of the request that holds it
+     */
+    private IdempotencyClaim claim(String claimId, int fingerprint) {
+        Instant now = Instant.now();
+        try {
+            return transactionTemplate.execute(status -> {
+                if (idempotencyClaimRepository.claimExpired(claimId, fingerprint, now, now.plus(ttl)) == 1) {
+                    return null;
+                }
+                IdempotencyClaim existing = idempotencyClaimRepository.findById(claimId).orElse(null);
+                if (existing == null) {
+                    idempotencyClaimRepository.insert(claimId, fingerprint, now.plus(ttl));
+                }
+                return existing;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // another request inserted the claim first
+            return transactionTemplate.execute(status -> idempotencyClaimRepository.findById(claimId).orElseThrow());
+        }
+    }
+
+    /**
+     * Stores the response of a finished request in its claim. A response that cannot be stored is logged; its
+     * duplicates on other instances are then rejected as if the request were still running.
+     */
+    private void store(String claimId, Object result) {
+        try {
+            Object body = result instanceof ResponseEntity<?> entity ? entity.getBody() : result;
+            Integer status = result instanceof ResponseEntity<?> entity ? entity.getStatusCode().value() : null;
+            String json = objectMapper.writeValueAsString(body);
+            transactionTemplate.executeWithoutResult(tx ->
+                    idempotencyClaimRepository.complete(claimId, status, json, Instant.now().plus(ttl)));
+        } catch (JsonProcessingException | DataAccessException e) {
+            log.error("Could not store the response of idempotency claim {}", claimId, e);
+        }
+    }
+
+    private Object replay(IdempotencyClaim claim, int fingerprint, String key, Type responseType) {
+        if (claim.getFingerprint() != fingerprint) {
+            throw new ArgumentException(HEADER + " " + key + " was already used for a different request");
+        }
+        if (claim.getResponse() == null || responseType == null) {
+            throw new ArgumentException(HEADER + " " + key + " is used by a request that is still running, please try again");
+        }
+        try {
+            JavaType type = objectMapper.constructType(responseType);
+            if (ResponseEntity.class.isAssignableFrom(type.getRawClass())) {
+                Object body = objectMapper.readValue(claim.getResponse(), type.containedTypeOrUnknown(0));
+                return ResponseEntity.status(claim.getStatus()).body(body);
+            }
+            return objectMapper.readValue(claim.getResponse(), type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response of " + HEADER + " " + key + " cannot be read", e);
+        }
+    }
+
+    private void release(String claimId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> idempotencyClaimRepository.deleteById(claimId));
+        } catch (DataAccessException e) {
+            log.error("Could not release idempotency claim {}, it is released when it expires", claimId, e);
+        }
+    }
+
+    private static String claimId(String caller, String key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(String.valueOf(caller).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(key.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private record Key(String caller, String key) {
+    }
+
+    private static class Entry {
+        final int fingerprint;
+        final CompletableFuture<Object> response = new CompletableFuture<>();
+        // Long.MAX_VALUE while the request is running
+        long expiresAt = Long.MAX_VALUE;
+
+        Entry(int fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        boolean isExpired(long now) {
+            return expiresAt != Long.MAX_VALUE && now - expiresAt > 0;
+        }
+    }
+}
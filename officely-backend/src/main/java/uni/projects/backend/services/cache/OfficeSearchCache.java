@@ -0,0 +1,284 @@
+package uni.projects.backend.services.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import uni.projects.backend.dao.OfficeRepository;
+import uni.projects.backend.events.OfficeChangedEvent;
+import uni.projects.backend.events.OfficeSnapshot;
+import uni.projects.backend.events.ReservationChangedEvent;
+import uni.projects.backend.events.ReservationSnapshot;
+import uni.projects.backend.models.CursorPage;
+import uni.projects.backend.models.office.OfficeFilter;
+import uni.projects.backend.web.OfficeDto;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static uni.projects.backend.utils.GeoUtils.haversineDistance;
+
+/**
+ * Bounded LRU cache of office search pages.
+ * <p>
+ * Pages are stored with the base office prices, the traffic based price multiplier is applied by the caller
+ * on every read. An entry is dropped only when a change could alter it: an office that is on the page or that
+ * matches the search criteria before or after the change, or an active reservation overlapping the searched
+ * dates of an office matching the criteria, as well as a change of the owner or an amenity shown on the page.
+ * <p>
+ * Entries also expire after {@code office.search-cache.ttl-millis}, which bounds how long a change made by
+ * another instance goes unnoticed.
+ */
+@Service
+public class OfficeSearchCache {
+
+    private static final String CACHE_NAME = "officeSearch";
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Map<Key, Entry> entries;
+    private long invalidations = 0;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter invalidationEvictions;
+
+    @Autowired
+    private OfficeRepository officeRepository;
+
+    public OfficeSearchCache(@Value("${office.search-cache.max-entries:1000}") int maxEntries,
+                             @Value("${office.search-cache.ttl-millis:60000}") long ttlMillis,
+                             MeterRegistry meterRegistry) {
+        this.hits = meterRegistry.counter("cache.gets", "cache", CACHE_NAME, "result", "hit");
+        this.misses = meterRegistry.counter("cache.gets", "cache", CACHE_NAME, "result", "miss");
+        this.sizeEvictions = meterRegistry.counter("cache.evictions", "cache", CACHE_NAME, "cause", "size");
+        this.invalidationEvictions = meterRegistry.counter("cache.evictions", "cache", CACHE_NAME, "cause", "invalidation");
+        meterRegistry.gauge("cache.size", List.of(Tag.of("cache", CACHE_NAME)), this, OfficeSearchCache::size);
+
+        this.maxEntries = maxEntries;
+        this.ttlNanos = Duration.ofMillis(ttlMillis).toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > OfficeSearchCache.this.maxEntries) {
+                    sizeEvictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached page for the key or computes and caches it.
+     * A page computed while an invalidation happened is returned but not cached, as it may already be stale.
+     */
+    public CursorPage<OfficeDto> get(Key key, Supplier<CursorPage<OfficeDto>> search) {
+        long seen;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && System.nanoTime() - entry.expiresAt < 0) {
+                hits.increment();
+                return entry.page;
+            }
+            if (entry != null) {
+                entries.remove(key);
+            }
+            misses.increment();
+            seen = invalidations;
+        }
+
+        CursorPage<OfficeDto> page = search.get();
+        Set<String> officeIds = page.content().stream().map(OfficeDto::id).collect(Collectors.toSet());
+
+        synchronized (this) {
+            if (seen == invalidations) {
+                entries.put(key, new Entry(page, officeIds, System.nanoTime() + ttlNanos));
+            }
+        }
+        return page;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        invalidations++;
+        entries.clear();
+    }
+
+    /**
+     * Drops the pages showing an office of the owner, whose contact details are part of the page.
+     */
+    public synchronized void evictOwner(String ownerEmail) {
+        invalidations++;
+        removeIf((key, entry) -> entry.page.content().stream()
+                .anyMatch(office -> Objects.equals(office.owner_email(), ownerEmail)));
+    }
+
+    /**
+     * Drops the pages showing an office with the amenity.
+     */
+    public synchronized void evictAmenity(int amenityId) {
+        invalidations++;
+        removeIf((key, entry) -> entry.page.content().stream()
+                .anyMatch(office -> office.amenities() != null
+                        && office.amenities().stream().anyMatch(amenity -> Objects.equals(amenity.id(), amenityId))));
+    }
+
+    @EventListener
+    public void onOfficeChanged(OfficeChangedEvent event) {
+        OfficeSnapshot previous = event.previous();
+        OfficeSnapshot current = event.current();
+        synchronized (this) {
+            invalidations++;
+            removeIf((key, entry) -> entry.officeIds.contains(current.id())
+                    || (previous != null && key.matches(previous))
+                    || key.matches(current));
+        }
+    }
+
+    @EventListener
+    public void onReservationChanged(ReservationChangedEvent event) {
+        if (!event.changesAvailability()) {
+            return;
+        }
+        ReservationSnapshot previous = event.previous();
+        ReservationSnapshot current = event.current();
+        synchronized (this) {
+            invalidations++;
+            if (entries.keySet().stream().noneMatch(key -> key.overlaps(previous) || key.overlaps(current))) {
+                return;
+            }
+        }
+
+        OfficeSnapshot office = officeRepository.findById(event.officeId()).map(OfficeSnapshot::of).orElse(null);
+        synchronized (this) {
+            removeIf((key, entry) -> (key.overlaps(previous) || key.overlaps(current))
+                    && (entry.officeIds.contains(event.officeId()) || office == null || key.matches(office)));
+        }
+    }
+
+    private void removeIf(BiPredicate<Key, Entry> affected) {
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Key, Entry> entry = iterator.next();
+            if (affected.test(entry.getKey(), entry.getValue())) {
+                iterator.remove();
+                invalidationEvictions.increment();
+            }
+        }
+    }
+
+    private record Entry(CursorPage<OfficeDto> page, Set<String> officeIds, long expiresAt) {
+    }
+
+    /**
+     * Canonical form of a search request. Two requests with the same key always produce the same page.
+     *
+     * @param dateStart the first searched day, null when availability is not filtered
+     * @param dateEnd the last searched day, null when availability is not filtered
+     * @param availabilityFiltered whether offices booked between the dates are excluded
+     * @param page the page number, 0 when a cursor is used
+     */
+    public record Key(
+            LocalDate dateStart,
+            LocalDate dateEnd,
+            boolean availabilityFiltered,
+            Double pricePerDayMin,
+            Double pricePerDayMax,
+            Double areaMin,
+            Double areaMax,
+            String country,
+            String city,
+            String postalCode,
+            String address,
+            Double x,
+            Double y,
+            Double distance,
+            String sortBy,
+            boolean ascending,
+            int page,
+            int pageSize,
+            String cursor
+    ) {
+
+        public static Key of(LocalDate dateStart, LocalDate dateEnd, OfficeFilter filter,
+                             String sortBy, boolean ascending, int page, int pageSize, String cursor) {
+            boolean geo = filter.getX() != null && filter.getY() != null && filter.getDistance() != null;
+            boolean availabilityFiltered = filter.getAvailableFrom() != null;
+            return new Key(
+                    availabilityFiltered ? dateStart : null,
+                    availabilityFiltered ? dateEnd : null,
+                    availabilityFiltered,
+                    filter.getPricePerDayMin(),
+                    filter.getPricePerDayMax(),
+                    filter.getAreaMin(),
+                    filter.getAreaMax(),
+                    filter.getCountry(),
+                    filter.getCity(),
+                    filter.getPostalCode(),
+                    filter.getAddress(),
+                    geo ? filter.getX() : null,
+                    geo ? filter.getY() : null,
+                    geo ? filter.getDistance() : null,
+                    sortBy,
+                    ascending,
+                    cursor != null ? 0 : page,
+                    pageSize,
+                    cursor
+            );
+        }
+
+        /**
+         * Checks whether an office satisfies the attribute and distance criteria of the search.
+         * String comparisons ignore case, so a match may be reported where the database would not find one.
+         */
+        boolean matches(OfficeSnapshot office) {
+            if (office.deleted()) {
+                return false;
+            }
+            if ((pricePerDayMin != null && office.price() < pricePerDayMin)
+                    || (pricePerDayMax != null && office.price() > pricePerDayMax)
+                    || (areaMin != null && office.metricArea() < areaMin)
+                    || (areaMax != null && office.metricArea() > areaMax)) {
+                return false;
+            }
+            if (!equalsIgnoreCase(country, office.country())
+                    || !equalsIgnoreCase(city, office.city())
+                    || !equalsIgnoreCase(postalCode, office.postalCode())) {
+                return false;
+            }
+            if (address != null && (office.address() == null || !office.address().toLowerCase().contains(address.toLowerCase()))) {
+                return false;
+            }
+            return distance == null || haversineDistance(y, x, office.y(), office.x()) <= distance;
+        }
+
+        /**
+         * Checks whether an active reservation blocks any of the searched days.
+         */
+        boolean overlaps(ReservationSnapshot reservation) {
+            return availabilityFiltered && reservation != null && reservation.isActive()
+                    && !reservation.startTime().isAfter(dateEnd) && !reservation.endTime().isBefore(dateStart);
+        }
+
+        private static boolean equalsIgnoreCase(String expected, String actual) {
+            return expected == null || expected.equalsIgnoreCase(actual);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package uni.projects.backend.services.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import uni.projects.backend.models.user.User;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of the users that logins, an email or a phone number, resolve to.
+ * <p>
+ * Entries expire after a short time, which bounds how long a change made by another instance goes unnoticed;
+ * changes made by this instance evict every login of the user right away. Every read returns a copy of the cached
+ * user, so callers may modify it.
+ */
+@Service
+public class UserCache {
+
+    private static final String CACHE_NAME = "users";
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Map<String, Entry> entries;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public UserCache(@Value("${user.cache.max-entries:10000}") int maxEntries,
+                     @Value("${user.cache.ttl-millis:60000}") long ttlMillis,
+                     MeterRegistry meterRegistry) {
+        this.hits = meterRegistry.counter("cache.gets", "cache", CACHE_NAME, "result", "hit");
+        this.misses = meterRegistry.counter("cache.gets", "cache", CACHE_NAME, "result", "miss");
+        meterRegistry.gauge("cache.size", List.of(Tag.of("cache", CACHE_NAME)), this, UserCache::size);
+
+        this.maxEntries = maxEntries;
+        this.ttlNanos = Duration.ofMillis(ttlMillis).toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > UserCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the user the login resolves to, resolving and caching it on a miss.
+     *
+     * @param resolve looks the user up, returns null if there is none; missing users are not cached
+     */
+    public User get(String login, Supplier<User> resolve) {
+        synchronized (this) {
+            Entry entry = entries.get(login);
+            if (entry != null && System.nanoTime() - entry.expiresAt < 0) {
+                hits.increment();
+                return copy(entry.user);
+            }
+            if (entry != null) {
+                entries.remove(login);
+            }
+            misses.increment();
+        }
+
+        User user = resolve.get();
+        if (user != null) {
+            synchronized (this) {
+                entries.put(login, new Entry(copy(user), System.nanoTime() + ttlNanos));
+            }
+        }
+        return user;
+    }
+
+    /**
+     * Evicts every login resolving to the user, and the logins equal to its email and phone number,
+     * which may now resolve to it.
+     */
+    public synchronized void evict(User user) {
+        entries.entrySet().removeIf(entry -> Objects.equals(entry.getValue().user.getId(), user.getId())
+                || entry.getKey().equals(user.getEmail())
+                || entry.getKey().equals(user.getPhoneNumber()));
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    private static User copy(User user) {
+        return new User(user.getId(), user.getEmail(), user.getName(), user.getSurname(), user.getPhoneNumber(),
+                user.getBirthDate(), user.getRole(), user.isDeleted());
+    }
+
+    private record Entry(User user, long expiresAt) {
+    }
+}
@@ -0,0 +1,70 @@
+package uni.projects.backend.services.calendar;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import uni.projects.backend.dao.ReservationRepository;
+import uni.projects.backend.exceptions.ArgumentException;
+import uni.projects.backend.models.office.Availability;
+import uni.projects.backend.models.reservation.ReservationPeriod;
+import uni.projects.backend.services.TrafficStatisticService;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Computes the free days of an office together with their price multipliers.
+ * <p>
+ * A calendar of any length costs three queries: the active reservations of the office in the range, sorted by
+ * start, the traffic statistics of the range and the visitor moments. Busy days are marked by a single sweep
+ * over the sorted reservations, which touches every day at most once, and the multipliers are computed in memory.
+ */
+@Service
+public class AvailabilityCalendarService {
+
+    static final int MAX_DAYS = 366;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private TrafficStatisticService trafficStatisticService;
+
+    /**
+     * @param officeId the ID of the office
+     * @param from the first day of the calendar
+     * @param to the last day of the calendar (inclusive)
+     * @return the free days between the two dates, in order
+     */
+    public List<Availability> getAvailability(String officeId, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new ArgumentException("dateEnd cannot be before dateStart");
+        }
+        int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        if (days > MAX_DAYS) {
+            throw new ArgumentException("Availability can be requested for at most " + MAX_DAYS + " days");
+        }
+
+        boolean[] busy = new boolean[days];
+        int markedUntil = -1; // last day offset already marked busy
+        for (ReservationPeriod period : reservationRepository.findActivePeriodsByOfficeIdBetween(officeId, from, to)) {
+            int first = Math.max(markedUntil + 1, (int) ChronoUnit.DAYS.between(from, period.getStartTime()));
+            int last = Math.min(days - 1, (int) ChronoUnit.DAYS.between(from, period.getEndTime()));
+            for (int day = first; day <= last; day++) {
+                busy[day] = true;
+            }
+            markedUntil = Math.max(markedUntil, last);
+        }
+
+        double[] multipliers = trafficStatisticService.calculateDailyMultipliers(from, to);
+
+        List<Availability> availability = new ArrayList<>();
+        for (int day = 0; day < days; day++) {
+            if (!busy[day]) {
+                availability.add(new Availability(from.plusDays(day), multipliers[day]));
+            }
+        }
+        return availability;
+    }
+}
@@ -0,0 +1,94 @@
+package uni.projects.backend.services.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uni.projects.backend.dao.ReservationRepository;
+import uni.projects.backend.models.reservation.ExportFormat;
+import uni.projects.backend.models.reservation.ReservationExportRow;
+import uni.projects.backend.models.reservation.ReservationFilter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes filtered reservations to a stream as NDJSON or CSV.
+ * <p>
+ * Rows are read in pages of {@code reservation.export.page-size}, each continuing after the ID of the last row of
+ * the previous one, in a short read-only transaction of its own. So the memory used does not depend on the number
+ * of rows, and a slow client never holds a connection or a transaction open. The output is flushed after every page,
+ * so the client starts receiving data right away.
+ */
+@Service
+public class ReservationExportService {
+
+    @Value("${reservation.export.page-size:1000}")
+    private int pageSize;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public ReservationExportService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public void export(ReservationFilter filter, ExportFormat format, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            writeCsvLine(ReservationExportRow.COLUMNS, writer);
+        }
+        String afterId = null;
+        List<ReservationExportRow> rows;
+        do {
+            String after = afterId;
+            rows = transactionTemplate.execute(status -> reservationRepository.findExportPage(filter, after, pageSize));
+            for (ReservationExportRow row : rows) {
+                write(row, format, writer);
+                afterId = row.id();
+            }
+            writer.flush();
+        } while (rows.size() == pageSize);
+    }
+
+    private void write(ReservationExportRow row, ExportFormat format, Writer writer) throws IOException {
+        if (format == ExportFormat.CSV) {
+            writeCsvLine(row.values(), writer);
+        } else {
+            writer.write(objectMapper.writeValueAsString(row));
+            writer.write('\n');
+        }
+    }
+
+    private static void writeCsvLine(Object[] values, Writer writer) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writer.write(escapeCsv(values[i].toString()));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
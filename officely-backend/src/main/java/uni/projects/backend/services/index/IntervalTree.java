@@ -0,0 +1,202 @@
+package uni.projects.backend.services.index;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Augmented interval tree over closed intervals {@code [start, end]} identified by a string ID.
+ * <p>
+ * The tree is a treap ordered by start (ties broken by ID) where every node also stores the largest end
+ * in its subtree. Insertions and removals run in expected O(log n), an overlap query in O(log n + k).
+ * The class is not thread safe.
+ */
+public class IntervalTree {
+
+    private Node root;
+    private final Map<String, Node> nodes = new HashMap<>();
+
+    /**
+     * Inserts an interval, replacing the previous interval with the same ID.
+     */
+    public void insert(String id, long start, long end) {
+        remove(id);
+        Node node = new Node(id, start, end, ThreadLocalRandom.current().nextInt());
+        nodes.put(id, node);
+        root = insert(root, node);
+    }
+
+    /**
+     * Removes the interval with the given ID if present.
+     */
+    public void remove(String id) {
+        Node node = nodes.remove(id);
+        if (node != null) {
+            root = remove(root, node);
+        }
+    }
+
+    public boolean contains(String id) {
+        return nodes.containsKey(id);
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Checks whether any stored interval other than {@code excludedId} overlaps {@code [start, end]}.
+     *
+     * @param excludedId the ID to ignore, may be null
+     */
+    public boolean overlaps(long start, long end, String excludedId) {
+        return anyOverlap(root, start, end, excludedId);
+    }
+
+    /**
+     * Returns the IDs of all stored intervals overlapping {@code [start, end]}, ordered by start.
+     */
+    public List<String> findOverlapping(long start, long end) {
+        List<String> result = new ArrayList<>();
+        collect(root, start, end, result);
+        return result;
+    }
+
+    private boolean anyOverlap(Node node, long start, long end, String excludedId) {
+        while (node != null) {
+            if (node.maxEnd < start) {
+                return false;
+            }
+            if (node.start <= end && node.end >= start && !node.id.equals(excludedId)) {
+                return true;
+            }
+            if (node.left != null && node.left.maxEnd >= start && anyOverlap(node.left, start, end, excludedId)) {
+                return true;
+            }
+            if (node.start > end) {
+                return false;
+            }
+            node = node.right;
+        }
+        return false;
+    }
+
+    private void collect(Node node, long start, long end, List<String> result) {
+        if (node == null || node.maxEnd < start) {
+            return;
+        }
+        collect(node.left, start, end, result);
+        if (node.start <= end && node.end >= start) {
+            result.add(node.id);
+        }
+        if (node.start <= end) {
+            collect(node.right, start, end, result);
+        }
+    }
+
+    private static Node insert(Node root, Node node) {
+        if (root == null) {
+            return node;
+        }
+        if (node.priority > root.priority) {
+            Node[] split = split(root, node);
+            node.left = split[0];
+            node.right = split[1];
+            node.update();
+            return node;
+        }
+        if (node.compareTo(root) < 0) {
+            root.left = insert(root.left, node);
+        } else {
+            root.right = insert(root.right, node);
+        }
+        root.update();
+        return root;
+    }
+
+    private static Node remove(Node root, Node node) {
+        if (root == null) {
+            return null;
+        }
+        if (root == node) {
+            return merge(root.left, root.right);
+        }
+        if (node.compareTo(root) < 0) {
+            root.left = remove(root.left, node);
+        } else {
+            root.right = remove(root.right, node);
+        }
+        root.update();
+        return root;
+    }
+
+    // splits into nodes ordered before the key and nodes ordered after it
+    private static Node[] split(Node root, Node key) {
+        if (root == null) {
+            return new Node[]{null, null};
+        }
+        if (root.compareTo(key) < 0) {
+            Node[] split = split(root.right, key);
+            root.right = split[0];
+            root.update();
+            return new Node[]{root, split[1]};
+        }
+        Node[] split = split(root.left, key);
+        root.left = split[1];
+        root.update();
+        return new Node[]{split[0], root};
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static final class Node implements Comparable<Node> {
+        private final String id;
+        private final long start;
+        private final long end;
+        private final int priority;
+        private long maxEnd;
+        private Node left;
+        private Node right;
+
+        private Node(String id, long start, long end, int priority) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.priority = priority;
+            this.maxEnd = end;
+        }
+
+        private void update() {
+            maxEnd = end;
+            if (left != null) {
+                maxEnd = Math.max(maxEnd, left.maxEnd);
+            }
+            if (right != null) {
+                maxEnd = Math.max(maxEnd, right.maxEnd);
+            }
+        }
+
+        @Override
+        public int compareTo(Node other) {
+            int byStart = Long.compare(start, other.start);
+            return byStart != 0 ? byStart : id.compareTo(other.id);
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package uni.projects.backend.services.index;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import uni.projects.backend.dao.OfficeRepository;
+import uni.projects.backend.dao.ReservationRepository;
+import uni.projects.backend.events.OfficeChangedEvent;
+import uni.projects.backend.events.ReservationChangedEvent;
+import uni.projects.backend.events.ReservationSnapshot;
+import uni.projects.backend.models.office.OfficeLocation;
+import uni.projects.backend.models.reservation.ReservationPeriod;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * In-memory day bitmap of booked dates per office.
+ * <p>
+ * Every indexed office owns a {@code long[]} where bit {@code n} is set when the office is booked on
+ * {@code origin + n days}. The window starts on the first day of the month in which the index was built
+ * and spans {@link #HORIZON_DAYS} days, so "is the office free between two dates" is a handful of word-wise
+ * AND operations instead of a correlated subquery over all reservations.
+ * <p>
+ * The bitmaps are built from the database on startup and compared against a fresh build every night, which also
+ * rolls the window forward and repairs any drift. In between, reservations made on other instances are picked up
+ * every minute by reloading only the bitmaps of the offices whose reservations changed since the last load.
+ * Changes made while a build or a reload is running are journaled and replayed onto it before it is swapped in.
+ * Ranges reaching outside the window fall back to the database.
+ */
+@Slf4j
+@Service
+public class OfficeAvailabilityIndex {
+
+    static final int HORIZON_DAYS = 18 * 32;
+    private static final int WORDS = (HORIZON_DAYS + 63) / 64;
+    private static final int RELOAD_BATCH_SIZE = 500;
+
+    private volatile Window window = new Window(LocalDate.now().withDayOfMonth(1), new ConcurrentHashMap<>());
+    private List<Consumer<Window>> journal = null;
+    private final Object buildLock = new Object();
+    private Instant loadedAt = null;
+
+    /**
+     * Reservations changed this long before the last load are read again, as their transactions may have
+     * committed after it.
+     */
+    @Value("${availability.index.refresh-overlap-millis:10000}")
+    private long refreshOverlapMillis;
+
+    @Autowired
+    private OfficeRepository officeRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Window rebuilt = swapIn();
+        log.debug("Availability index loaded for {} offices starting {}", rebuilt.bitmaps.size(), rebuilt.origin);
+    }
+
+    /**
+     * Reloads the bitmaps of the offices whose reservations were inserted or updated since the last load, which
+     * picks up reservations made on other instances. Falls back to a full build before the first one and once the
+     * month of the window has passed.
+     *
+     * @return the number of offices reloaded
+     */
+    @Scheduled(fixedDelayString = "${availability.index.refresh-millis:60000}", initialDelayString = "${availability.index.refresh-millis:60000}")
+    public int refresh() {
+        synchronized (buildLock) {
+            Window current = window;
+            if (loadedAt == null || !current.origin.equals(LocalDate.now().withDayOfMonth(1))) {
+                return swapIn().bitmaps.size();
+            }
+            Instant started = Instant.now();
+            List<String> officeIds = reservationRepository.findOfficeIdsChangedSince(loadedAt.minusMillis(refreshOverlapMillis));
+            for (int from = 0; from < officeIds.size(); from += RELOAD_BATCH_SIZE) {
+                reload(current, officeIds.subList(from, Math.min(from + RELOAD_BATCH_SIZE, officeIds.size())));
+            }
+            loadedAt = started;
+            log.debug("Availability index reloaded for {} offices", officeIds.size());
+            return officeIds.size();
+        }
+    }
+
+    /**
+     * Compares the live bitmaps with a fresh build from the database and replaces them.
+     *
+     * @return the number of offices whose bitmaps differed
+     */
+    @Scheduled(cron = "${availability.index.check-cron:0 30 3 * * *}")
+    public int verify() {
+        Window previous = window;
+        Window rebuilt = swapIn();
+
+        int mismatches = 0;
+        if (previous.origin.equals(rebuilt.origin)) {
+            Set<String> officeIds = new HashSet<>(previous.bitmaps.keySet());
+            officeIds.addAll(rebuilt.bitmaps.keySet());
+            for (String officeId : officeIds) {
+                if (!Arrays.equals(previous.bitmaps.get(officeId), rebuilt.bitmaps.get(officeId))) {
+                    mismatches++;
+                }
+            }
+        }
+        if (mismatches > 0) {
+            log.warn("Availability index was out of sync for {} offices and has been rebuilt", mismatches);
+        }
+        return mismatches;
+    }
+
+    @EventListener
+    public void onReservationChanged(ReservationChangedEvent event) {
+        if (!event.changesAvailability()) {
+            return;
+        }
+        ReservationSnapshot previous = event.previous();
+        ReservationSnapshot current = event.current();
+        apply(target -> {
+            if (previous != null && previous.isActive()) {
+                update(target, previous.officeId(), previous.startTime(), previous.endTime(), false);
+            }
+            if (current.isActive()) {
+                update(target, current.officeId(), current.startTime(), current.endTime(), true);
+            }
+        });
+    }
+
+    @EventListener
+    public void onOfficeChanged(OfficeChangedEvent event) {
+        boolean deleted = event.current().deleted();
+        apply(target -> {
+            if (deleted) {
+                target.bitmaps.remove(event.officeId());
+            } else {
+                target.bitmaps.computeIfAbsent(event.officeId(), id -> new long[WORDS]);
+            }
+        });
+    }
+
+    /**
+     * @return true if both dates fall inside the indexed window
+     */
+    public boolean covers(LocalDate from, LocalDate to) {
+        return window.covers(from, to);
+    }
+
+    /**
+     * Checks whether an office has no active reservation on any day between the two dates (inclusive).
+     */
+    public boolean isFree(String officeId, LocalDate from, LocalDate to) {
+        Window current = window;
+        if (!current.covers(from, to)) {
+            return !reservationRepository.existsOverlappingReservation(officeId, from, to);
+        }
+        long[] bitmap = current.bitmaps.get(officeId);
+        return bitmap == null || !intersects(bitmap, current.offset(from), current.offset(to));
+    }
+
+    /**
+     * Finds the offices that have at least one active reservation between the two dates (inclusive).
+     */
+    public Set<String> findBusy(LocalDate from, LocalDate to) {
+        Window current = window;
+        if (!current.covers(from, to)) {
+            return new HashSet<>(reservationRepository.findBusyOfficeIds(from, to));
+        }
+        int first = current.offset(from);
+        int last = current.offset(to);
+        Set<String> busy = new HashSet<>();
+        current.bitmaps.forEach((officeId, bitmap) -> {
+            if (intersects(bitmap, first, last)) {
+                busy.add(officeId);
+            }
+        });
+        return busy;
+    }
+
+    /**
+     * Applies a change to the live bitmaps and, while a build is loading, records it to be replayed onto the build.
+     * Changes only set or clear the days of a reservation, so replaying one that the build already read is harmless.
+     */
+    private synchronized void apply(Consumer<Window> change) {
+        change.accept(window);
+        if (journal != null) {
+            journal.add(change);
+        }
+    }
+
+    private Window swapIn() {
+        synchronized (buildLock) {
+            synchronized (this) {
+                journal = new ArrayList<>();
+            }
+            try {
+                Instant started = Instant.now();
+                Window rebuilt = load(LocalDate.now().withDayOfMonth(1));
+                synchronized (this) {
+                    journal.forEach(change -> change.accept(rebuilt));
+                    window = rebuilt;
+                }
+                loadedAt = started;
+                return rebuilt;
+            } finally {
+                synchronized (this) {
+                    journal = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Replaces the bitmaps of the given offices in the live window with bitmaps read from the database.
+     */
+    private void reload(Window current, List<String> officeIds) {
+        synchronized (this) {
+            journal = new ArrayList<>();
+        }
+        try {
+            Map<String, long[]> bitmaps = new HashMap<>();
+            officeIds.forEach(officeId -> bitmaps.put(officeId, new long[WORDS]));
+            Window reloaded = new Window(current.origin, bitmaps);
+            LocalDate last = current.origin.plusDays(HORIZON_DAYS - 1);
+            for (ReservationPeriod period : reservationRepository.findActivePeriodsByOfficeIdInBetween(officeIds, current.origin, last)) {
+                reloaded.set(period.getOfficeId(), period.getStartTime(), period.getEndTime(), true);
+            }
+            synchronized (this) {
+                journal.forEach(change -> change.accept(reloaded));
+                current.bitmaps.putAll(bitmaps);
+            }
+        } finally {
+            synchronized (this) {
+                journal = null;
+            }
+        }
+    }
+
+    private Window load(LocalDate origin) {
+        Map<String, long[]> bitmaps = new ConcurrentHashMap<>();
+        for (OfficeLocation office : officeRepository.findAllByDeletedFalse()) {
+            bitmaps.put(office.getId(), new long[WORDS]);
+        }
+        Window loaded = new Window(origin, bitmaps);
+        for (ReservationPeriod period : reservationRepository.findActivePeriodsEndingFrom(origin)) {
+            if (bitmaps.containsKey(period.getOfficeId())) {
+                loaded.set(period.getOfficeId(), period.getStartTime(), period.getEndTime(), true);
+            }
+        }
+        return loaded;
+    }
+
+    private static void update(Window target, String officeId, LocalDate startTime, LocalDate endTime, boolean booked) {
+        if (target.bitmaps.containsKey(officeId)) {
+            target.set(officeId, startTime, endTime, booked);
+        }
+    }
+
+    private static boolean intersects(long[] bitmap, int first, int last) {
+        for (int word = first >>> 6; word <= last >>> 6; word++) {
+            if ((bitmap[word] & mask(word, first, last)) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long mask(int word, int first, int last) {
+        int from = Math.max(first, word << 6) & 63;
+        int to = Math.min(last, (word << 6) + 63) & 63;
+        long upper = to == 63 ? -1L : (1L << (to + 1)) - 1;
+        return upper & (-1L << from);
+    }
+
+    private record Window(LocalDate origin, Map<String, long[]> bitmaps) {
+
+        boolean covers(LocalDate from, LocalDate to) {
+            return !from.isBefore(origin) && !to.isBefore(from) && offset(to) < HORIZON_DAYS;
+        }
+
+        int offset(LocalDate date) {
+            return (int) (date.toEpochDay() - origin.toEpochDay());
+        }
+
+        void set(String officeId, LocalDate startTime, LocalDate endTime, boolean booked) {
+            int first = Math.max(0, offset(startTime));
+            int last = Math.min(HORIZON_DAYS - 1, offset(endTime));
+            long[] bitmap = Objects.requireNonNull(bitmaps.get(officeId));
+            for (int word = first >>> 6; first <= last && word <= last >>> 6; word++) {
+                long mask = mask(word, first, last);
+                bitmap[word] = booked ? bitmap[word] | mask : bitmap[word] & ~mask;
+            }
+        }
+    }
+}
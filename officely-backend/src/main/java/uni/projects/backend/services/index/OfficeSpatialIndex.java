@@ -0,0 +1,173 @@
+package uni.projects.backend.services.index;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import uni.projects.backend.dao.OfficeRepository;
+import uni.projects.backend.events.OfficeChangedEvent;
+import uni.projects.backend.events.OfficeSnapshot;
+import uni.projects.backend.models.office.OfficeLocation;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static uni.projects.backend.utils.GeoUtils.KM_PER_DEGREE;
+import static uni.projects.backend.utils.GeoUtils.haversineDistance;
+
+/**
+ * In-memory grid index over office coordinates.
+ * <p>
+ * Offices are bucketed into fixed-size latitude/longitude cells. A radius query only visits the cells
+ * overlapping the bounding box of the circle and checks the exact distance of the offices found there,
+ * so the database never has to evaluate the haversine formula row by row.
+ * Deleted offices are not indexed.
+ * <p>
+ * The index follows the {@link OfficeChangedEvent}s of this instance and is reconciled with the database
+ * periodically, which picks up offices changed by other instances.
+ */
+@Slf4j
+@Service
+public class OfficeSpatialIndex {
+
+    private static final double CELL_SIZE = 0.1; // degrees, roughly 11 km of latitude
+    private static final int LON_CELLS = (int) Math.round(360 / CELL_SIZE);
+    private static final int LAT_CELLS = (int) Math.round(180 / CELL_SIZE);
+
+    private final Map<Long, Set<String>> cells = new ConcurrentHashMap<>();
+    private final Map<String, double[]> positions = new ConcurrentHashMap<>();
+
+    @Autowired
+    private OfficeRepository officeRepository;
+
+    /**
+     * Reconciles the index with the offices stored in the database. Only offices that were added, moved or removed
+     * are touched, so queries running meanwhile never see an empty index.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${office.spatial-index.reload-millis:60000}", initialDelayString = "${office.spatial-index.reload-millis:60000}")
+    public void rebuild() {
+        List<OfficeLocation> locations = officeRepository.findAllByDeletedFalse();
+        synchronized (this) {
+            Set<String> loaded = new HashSet<>();
+            for (OfficeLocation location : locations) {
+                loaded.add(location.getId());
+                double[] position = positions.get(location.getId());
+                if (position == null || position[0] != location.getX() || position[1] != location.getY()) {
+                    put(location.getId(), location.getX(), location.getY());
+                }
+            }
+            new ArrayList<>(positions.keySet()).stream().filter(officeId -> !loaded.contains(officeId)).forEach(this::remove);
+        }
+        log.debug("Spatial index loaded with {} offices", locations.size());
+    }
+
+    @EventListener
+    public void onOfficeChanged(OfficeChangedEvent event) {
+        OfficeSnapshot office = event.current();
+        if (office.deleted()) {
+            remove(office.id());
+        } else {
+            put(office.id(), office.x(), office.y());
+        }
+    }
+
+    /**
+     * Adds an office to the index or moves it to its new coordinates.
+     *
+     * @param officeId the ID of the office
+     * @param x the longitude of the office
+     * @param y the latitude of the office
+     */
+    public synchronized void put(String officeId, double x, double y) {
+        remove(officeId);
+        positions.put(officeId, new double[]{x, y});
+        cells.computeIfAbsent(cellKey(latCell(y), lonCell(x)), key -> ConcurrentHashMap.newKeySet()).add(officeId);
+    }
+
+    public synchronized void remove(String officeId) {
+        double[] position = positions.remove(officeId);
+        if (position == null) {
+            return;
+        }
+        long key = cellKey(latCell(position[1]), lonCell(position[0]));
+        Set<String> cell = cells.get(key);
+        if (cell != null) {
+            cell.remove(officeId);
+            if (cell.isEmpty()) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Finds the offices located within the given distance of a point.
+     *
+     * @param x the longitude of the centre
+     * @param y the latitude of the centre
+     * @param distance the radius in kilometres
+     * @return the IDs of the offices inside the circle
+     */
+    public Set<String> findWithin(double x, double y, double distance) {
+        Set<String> result = new HashSet<>();
+        if (distance < 0) {
+            return result;
+        }
+
+        double latSpan = distance / KM_PER_DEGREE;
+        double minLat = Math.max(-90, y - latSpan);
+        double maxLat = Math.min(90, y + latSpan);
+        double widestLat = Math.max(Math.abs(minLat), Math.abs(maxLat));
+        double lonSpan = widestLat >= 90 ? 180 : distance / (KM_PER_DEGREE * Math.cos(Math.toRadians(widestLat)));
+
+        int firstLatCell = latCell(minLat);
+        int lastLatCell = latCell(maxLat);
+        int firstLonCell;
+        int lonCellCount;
+        if (lonSpan >= 180) {
+            firstLonCell = 0;
+            lonCellCount = LON_CELLS;
+        } else {
+            firstLonCell = lonCell(x - lonSpan);
+            lonCellCount = Math.min(LON_CELLS, Math.floorMod(lonCell(x + lonSpan) - firstLonCell, LON_CELLS) + 1);
+        }
+
+        for (int latCell = firstLatCell; latCell <= lastLatCell; latCell++) {
+            for (int i = 0; i < lonCellCount; i++) {
+                Set<String> cell = cells.get(cellKey(latCell, (firstLonCell + i) % LON_CELLS));
+                if (cell == null) {
+                    continue;
+                }
+                for (String officeId : cell) {
+                    double[] position = positions.get(officeId);
+                    if (position != null && haversineDistance(y, x, position[1], position[0]) <= distance) {
+                        result.add(officeId);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return positions.size();
+    }
+
+    private static int latCell(double lat) {
+        return Math.min(LAT_CELLS - 1, (int) Math.floor((lat + 90) / CELL_SIZE));
+    }
+
+    private static int lonCell(double lon) {
+        return Math.floorMod((int) Math.floor((lon + 180) / CELL_SIZE), LON_CELLS);
+    }
+
+    private static long cellKey(int latCell, int lonCell) {
+        return (long) latCell * LON_CELLS + lonCell;
+    }
+}
@@ -0,0 +1,159 @@
+package uni.projects.backend.services.index;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import uni.projects.backend.dao.ReservationRepository;
+import uni.projects.backend.events.ReservationChangedEvent;
+import uni.projects.backend.events.ReservationSnapshot;
+import uni.projects.backend.models.office.Office;
+import uni.projects.backend.models.reservation.ReservationPeriod;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-office interval trees of active reservations, used to accept bookings of free dates without a database round-trip.
+ * <p>
+ * Every booking, on any instance, increments the version of its office (see
+ * {@link uni.projects.backend.dao.OfficeRepository#findForBookingById}), and a tree remembers the office version it
+ * holds every booking of. So a tree of the current version that finds no overlap is trusted, while a tree of another
+ * version is reloaded first. Reservations freed by another instance do not change the version, so an overlap found
+ * in a tree is only a hint: it is confirmed by the database, and a tree whose hint was wrong is dropped.
+ * <p>
+ * A tree is loaded the first time an office is booked or rebooked, kept current from {@link ReservationChangedEvent}s,
+ * and dropped once it has not been used for the idle time or was loaded longer than the maximum age ago.
+ */
+@Slf4j
+@Service
+public class ReservationIntervalIndex {
+
+    private final Map<String, OfficeIntervals> offices = new ConcurrentHashMap<>();
+
+    @Value("${reservation.interval-index.idle-millis:1800000}")
+    private long idleMillis;
+
+    @Value("${reservation.interval-index.max-age-millis:300000}")
+    private long maxAgeMillis;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    /**
+     * Checks whether an active reservation of the office, other than the excluded one, overlaps the given dates.
+     * Must be called in the booking transaction, with the office loaded for booking and its lock held; when the
+     * transaction commits, the tree follows the office to its incremented version.
+     *
+     * @param office the office, loaded with {@link uni.projects.backend.dao.OfficeRepository#findForBookingById}
+     * @param startTime the first booked day
+     * @param endTime the last booked day
+     * @param excludedReservationId the reservation to ignore (the one being updated), may be null
+     */
+    public boolean overlaps(Office office, LocalDate startTime, LocalDate endTime, String excludedReservationId) {
+        String officeId = office.getId();
+        long version = office.getVersion();
+        followCommit(officeId, version);
+
+        OfficeIntervals intervals = offices.get(officeId);
+        if (intervals == null || intervals.version != version) {
+            intervals = load(officeId, version);
+            offices.put(officeId, intervals);
+            return intervals.overlaps(startTime, endTime, excludedReservationId);
+        }
+        if (!intervals.overlaps(startTime, endTime, excludedReservationId)) {
+            return false;
+        }
+
+        boolean confirmed = excludedReservationId == null
+                ? reservationRepository.existsOverlappingReservation(officeId, startTime, endTime)
+                : reservationRepository.existsOverlappingReservationExcluding(officeId, excludedReservationId, startTime, endTime);
+        if (!confirmed) {
+            offices.remove(officeId, intervals);
+        }
+        return confirmed;
+    }
+
+    @EventListener
+    public void onReservationChanged(ReservationChangedEvent event) {
+        ReservationSnapshot current = event.current();
+        if (event.previous() != null && !event.previous().officeId().equals(current.officeId())) {
+            offices.computeIfPresent(event.previous().officeId(), (officeId, intervals) -> intervals.remove(current.id()));
+        }
+        offices.computeIfPresent(current.officeId(), (officeId, intervals) -> intervals.apply(current));
+    }
+
+    @Scheduled(fixedDelayString = "${reservation.interval-index.eviction-millis:60000}")
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        offices.entrySet().removeIf(entry -> entry.getValue().lastAccess < now - idleMillis
+                || entry.getValue().loadedAt < now - maxAgeMillis);
+    }
+
+    /**
+     * The commit increments the office version by one, and the reservation it saved reaches the tree by its event.
+     */
+    private void followCommit(String officeId, long version) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                offices.computeIfPresent(officeId, (id, intervals) -> intervals.advance(version));
+            }
+        });
+    }
+
+    private OfficeIntervals load(String officeId, long version) {
+        List<ReservationPeriod> periods = reservationRepository.findActivePeriodsByOfficeId(officeId, LocalDate.now());
+        OfficeIntervals intervals = new OfficeIntervals(version);
+        periods.forEach(period -> intervals.tree.insert(period.getId(),
+                period.getStartTime().toEpochDay(), period.getEndTime().toEpochDay()));
+        log.debug("Loaded {} active reservations of office {}", periods.size(), officeId);
+        return intervals;
+    }
+
+    private static final class OfficeIntervals {
+        private final IntervalTree tree = new IntervalTree();
+        private final long loadedAt = System.currentTimeMillis();
+        private volatile long lastAccess = loadedAt;
+        private volatile long version;
+
+        private OfficeIntervals(long version) {
+            this.version = version;
+        }
+
+        private synchronized boolean overlaps(LocalDate startTime, LocalDate endTime, String excludedReservationId) {
+            lastAccess = System.currentTimeMillis();
+            return tree.overlaps(startTime.toEpochDay(), endTime.toEpochDay(), excludedReservationId);
+        }
+
+        private synchronized OfficeIntervals advance(long committedVersion) {
+            if (version == committedVersion) {
+                version = committedVersion + 1;
+            }
+            return this;
+        }
+
+        private synchronized OfficeIntervals apply(ReservationSnapshot reservation) {
+            if (reservation.isActive()) {
+                tree.insert(reservation.id(), reservation.startTime().toEpochDay(), reservation.endTime().toEpochDay());
+            } else {
+                tree.remove(reservation.id());
+            }
+            return this;
+        }
+
+        private synchronized OfficeIntervals remove(String reservationId) {
+            tree.remove(reservationId);
+            return this;
+        }
+    }
+}
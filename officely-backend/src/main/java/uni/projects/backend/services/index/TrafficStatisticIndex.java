@@ -0,0 +1,235 @@
+package uni.projects.backend.services.index;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import uni.projects.backend.dao.TrafficStatisticRepository;
+import uni.projects.backend.models.TrafficStatistic;
+import uni.projects.backend.models.VisitorMoments;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.TreeMap;
+
+/**
+ * In-memory model of the daily visitor statistics from today onwards.
+ * <p>
+ * The mean and variance of the visitors of all days from today are maintained with Welford's online algorithm,
+ * so a changed day only removes its old count and adds the new one. The maximum over a date range is answered
+ * by a segment tree covering {@link #HORIZON_DAYS} days from today, days further ahead are scanned from the
+ * sorted map that holds every count.
+ * <p>
+ * The model follows the counts written by {@link uni.projects.backend.services.TrafficStatisticService#flushVisitors()}
+ * and is reloaded from the database on startup and periodically by
+ * {@link uni.projects.backend.services.TrafficStatisticService#reloadStatistics()}, which picks up the counts written
+ * by other instances. When the date changes, the days that are now in the past are removed from the moments and
+ * the tree is shifted.
+ */
+@Slf4j
+@Service
+public class TrafficStatisticIndex {
+
+    static final int HORIZON_DAYS = 2 * 366;
+    private static final long ABSENT = -1;
+
+    private LocalDate origin = LocalDate.now();
+    private final TreeMap<LocalDate, Long> visitors = new TreeMap<>();
+    private final long[] tree = new long[2 * HORIZON_DAYS];
+
+    private long count = 0;
+    private double mean = 0;
+    private double squaredDeviations = 0;
+    private long version = 0;
+
+    @Autowired
+    private TrafficStatisticRepository trafficStatisticRepository;
+
+    public TrafficStatisticIndex() {
+        Arrays.fill(tree, ABSENT);
+    }
+
+    /**
+     * Replaces the model with the statistics stored in the database. The statistics are read before the model is
+     * locked, so lookups are not blocked by the query.
+     */
+    public void rebuild() {
+        LocalDate from = LocalDate.now();
+        List<TrafficStatistic> statistics = trafficStatisticRepository.findAllByDateGreaterThanEqual(from);
+        replace(from, statistics);
+        log.debug("Traffic statistics loaded for {} days starting {}", statistics.size(), from);
+    }
+
+    private synchronized void replace(LocalDate from, List<TrafficStatistic> statistics) {
+        origin = from;
+        visitors.clear();
+        count = 0;
+        mean = 0;
+        squaredDeviations = 0;
+        for (TrafficStatistic statistic : statistics) {
+            visitors.put(statistic.getDate(), (long) statistic.getVisitors());
+            include(statistic.getVisitors());
+        }
+        buildTree();
+        version++;
+    }
+
+    /**
+     * Adds visitors to a day, as the upsert of the statistics table does. Past days are ignored.
+     */
+    public synchronized void addVisitors(LocalDate date, long added) {
+        rollOver();
+        if (date.isBefore(origin) || added == 0) {
+            return;
+        }
+        Long previous = visitors.get(date);
+        if (previous != null) {
+            exclude(previous);
+        }
+        long updated = (previous == null ? 0 : previous) + added;
+        visitors.put(date, updated);
+        include(updated);
+        int offset = offset(date);
+        if (offset < HORIZON_DAYS) {
+            setLeaf(offset, updated);
+        }
+        version++;
+    }
+
+    /**
+     * @return a number that changes whenever a statistic, and so any multiplier, may have changed
+     */
+    public synchronized long version() {
+        rollOver();
+        return version;
+    }
+
+    /**
+     * @return true if the model holds the statistics of every day from the given date onwards
+     */
+    public synchronized boolean covers(LocalDate from) {
+        rollOver();
+        return !from.isBefore(origin);
+    }
+
+    /**
+     * @return the visitors of the day, empty if the day has no statistic
+     */
+    public synchronized OptionalLong visitors(LocalDate date) {
+        rollOver();
+        Long day = visitors.get(date);
+        return day == null ? OptionalLong.empty() : OptionalLong.of(day);
+    }
+
+    /**
+     * Finds the largest visitor count of the days between the two dates (inclusive) that have a statistic.
+     * Days before today are not part of the model.
+     *
+     * @return the maximum, empty if no day of the range has a statistic
+     */
+    public synchronized OptionalLong maxVisitors(LocalDate from, LocalDate to) {
+        rollOver();
+        if (from.isBefore(origin)) {
+            from = origin;
+        }
+        if (to.isBefore(from)) {
+            return OptionalLong.empty();
+        }
+
+        long max = ABSENT;
+        int first = offset(from);
+        if (first < HORIZON_DAYS) {
+            max = queryTree(first, Math.min(offset(to), HORIZON_DAYS - 1));
+        }
+        LocalDate beyond = origin.plusDays(HORIZON_DAYS);
+        if (!to.isBefore(beyond)) {
+            for (long day : visitors.subMap(from.isAfter(beyond) ? from : beyond, true, to, true).values()) {
+                max = Math.max(max, day);
+            }
+        }
+        return max == ABSENT ? OptionalLong.empty() : OptionalLong.of(max);
+    }
+
+    /**
+     * @return the mean and the population standard deviation of the visitors of all days from today,
+     *         with null values when there are no such days
+     */
+    public synchronized VisitorMoments moments() {
+        rollOver();
+        if (count == 0) {
+            return new Moments(null, null);
+        }
+        return new Moments(mean, Math.sqrt(Math.max(0, squaredDeviations / count)));
+    }
+
+    private void rollOver() {
+        LocalDate today = LocalDate.now();
+        if (!today.isAfter(origin)) {
+            return;
+        }
+        Map<LocalDate, Long> past = visitors.headMap(today);
+        past.values().forEach(this::exclude);
+        past.clear();
+        origin = today;
+        buildTree();
+        version++;
+    }
+
+    private void include(long value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        squaredDeviations += delta * (value - mean);
+    }
+
+    private void exclude(long value) {
+        if (count <= 1) {
+            count = 0;
+            mean = 0;
+            squaredDeviations = 0;
+            return;
+        }
+        count--;
+        double delta = value - mean;
+        mean -= delta / count;
+        squaredDeviations -= delta * (value - mean);
+    }
+
+    private void buildTree() {
+        Arrays.fill(tree, ABSENT);
+        visitors.headMap(origin.plusDays(HORIZON_DAYS)).forEach((date, day) -> tree[HORIZON_DAYS + offset(date)] = day);
+        for (int node = HORIZON_DAYS - 1; node > 0; node--) {
+            tree[node] = Math.max(tree[2 * node], tree[2 * node + 1]);
+        }
+    }
+
+    private void setLeaf(int offset, long value) {
+        int node = HORIZON_DAYS + offset;
+        tree[node] = value;
+        for (node >>= 1; node > 0; node >>= 1) {
+            tree[node] = Math.max(tree[2 * node], tree[2 * node + 1]);
+        }
+    }
+
+    private long queryTree(int first, int last) {
+        long max = ABSENT;
+        for (int left = first + HORIZON_DAYS, right = last + HORIZON_DAYS + 1; left < right; left >>= 1, right >>= 1) {
+            if ((left & 1) == 1) {
+                max = Math.max(max, tree[left++]);
+            }
+            if ((right & 1) == 1) {
+                max = Math.max(max, tree[--right]);
+            }
+        }
+        return max;
+    }
+
+    private int offset(LocalDate date) {
+        return (int) Math.min(Integer.MAX_VALUE, date.toEpochDay() - origin.toEpochDay());
+    }
+
+    private record Moments(Double getAverage, Double getStandardDeviation) implements VisitorMoments {
+    }
+}
@@ -0,0 +1,103 @@
+package uni.projects.backend.services.index;
+
+import org.springframework.stereotype.Service;
+import uni.projects.backend.models.reservation.WaitlistEntry;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Waiting waitlist entries, indexed by the office or the city they wait for and by their dates.
+ * <p>
+ * Every office and every city has an {@link IntervalTree} of the date ranges of its entries, so the entries a freed
+ * range can serve are found in O(log n + k) instead of by scanning the waitlist. Matches are returned first come,
+ * first served.
+ */
+@Service
+public class WaitlistIndex {
+
+    private final Map<String, IntervalTree> byOffice = new HashMap<>();
+    private final Map<String, IntervalTree> byCity = new HashMap<>();
+    private final Map<String, Waiting> entries = new HashMap<>();
+
+    /**
+     * Adds a waiting entry, replacing a previous one with the same ID.
+     */
+    public synchronized void add(WaitlistEntry entry) {
+        remove(entry.getId());
+        boolean forOffice = entry.getOffice() != null;
+        String key = forOffice ? entry.getOffice().getId() : cityKey(entry.getCity());
+        Waiting waiting = new Waiting(entry.getId(), forOffice, key, entry.getCreatedAt());
+        entries.put(waiting.id, waiting);
+        trees(forOffice).computeIfAbsent(key, ignored -> new IntervalTree())
+                .insert(waiting.id, entry.getStartTime().toEpochDay(), entry.getEndTime().toEpochDay());
+    }
+
+    public synchronized void remove(String id) {
+        Waiting waiting = entries.remove(id);
+        if (waiting == null) {
+            return;
+        }
+        Map<String, IntervalTree> trees = trees(waiting.forOffice);
+        IntervalTree tree = trees.get(waiting.key);
+        tree.remove(id);
+        if (tree.size() == 0) {
+            trees.remove(waiting.key);
+        }
+    }
+
+    public synchronized void clear() {
+        byOffice.clear();
+        byCity.clear();
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized boolean hasCityEntries() {
+        return !byCity.isEmpty();
+    }
+
+    /**
+     * Finds the entries waiting for the office, or for its city, whose dates overlap the given range (inclusive).
+     *
+     * @param city the city of the office, null to match only the entries waiting for the office itself
+     * @return the IDs of the matching entries, oldest first
+     */
+    public synchronized List<String> match(String officeId, String city, LocalDate startTime, LocalDate endTime) {
+        long start = startTime.toEpochDay();
+        long end = endTime.toEpochDay();
+        List<Waiting> matches = new ArrayList<>();
+        collect(byOffice.get(officeId), start, end, matches);
+        if (city != null) {
+            collect(byCity.get(cityKey(city)), start, end, matches);
+        }
+        matches.sort(Comparator.comparing(Waiting::createdAt).thenComparing(Waiting::id));
+        return matches.stream().map(Waiting::id).toList();
+    }
+
+    private void collect(IntervalTree tree, long start, long end, List<Waiting> matches) {
+        if (tree != null) {
+            tree.findOverlapping(start, end).forEach(id -> matches.add(entries.get(id)));
+        }
+    }
+
+    private Map<String, IntervalTree> trees(boolean forOffice) {
+        return forOffice ? byOffice : byCity;
+    }
+
+    private static String cityKey(String city) {
+        return city.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Waiting(String id, boolean forOffice, String key, Instant createdAt) {
+    }
+}
@@ -0,0 +1,109 @@
+package uni.projects.backend.services.lifecycle;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hashed timing wheel of timers identified by a key, with a resolution of one tick.
+ * <p>
+ * Time is divided into ticks of a fixed length; a timer due at tick {@code t} is kept in bucket
+ * {@code t mod wheelSize}. Scheduling and cancelling a timer take O(1), advancing the wheel by one tick visits
+ * a single bucket, where timers due in a later round of the wheel are skipped. Scheduling a key again replaces its
+ * timer. The class is not thread safe.
+ *
+ * @param <K> the type of the timer keys
+ */
+public class HashedTimingWheel<K> {
+
+    private final long tickMillis;
+    private final int mask;
+    private final List<Set<Timer<K>>> buckets;
+    private final Map<K, Timer<K>> timers = new HashMap<>();
+    private long currentTick;
+
+    /**
+     * @param tickMillis the length of a tick
+     * @param wheelSize the number of buckets, rounded up to a power of two
+     * @param nowMillis the current time in epoch milliseconds
+     */
+    public HashedTimingWheel(long tickMillis, int wheelSize, long nowMillis) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick length and wheel size must be positive");
+        }
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.tickMillis = tickMillis;
+        this.mask = size - 1;
+        this.buckets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            buckets.add(new HashSet<>());
+        }
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    /**
+     * Schedules the timer of a key, replacing its previous timer. A deadline that has passed expires on the next tick.
+     *
+     * @param deadlineMillis the epoch milliseconds at which the timer expires
+     */
+    public void schedule(K key, long deadlineMillis) {
+        cancel(key);
+        long deadlineTick = Math.max(currentTick + 1, Math.ceilDiv(deadlineMillis, tickMillis));
+        Timer<K> timer = new Timer<>(key, deadlineTick);
+        timers.put(key, timer);
+        bucket(deadlineTick).add(timer);
+    }
+
+    /**
+     * @return true if the key had a timer
+     */
+    public boolean cancel(K key) {
+        Timer<K> timer = timers.remove(key);
+        if (timer == null) {
+            return false;
+        }
+        bucket(timer.deadlineTick).remove(timer);
+        return true;
+    }
+
+    /**
+     * Advances the wheel to the current time.
+     *
+     * @param nowMillis the current time in epoch milliseconds
+     * @return the keys of the timers that expired
+     */
+    public List<K> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<K> expired = new ArrayList<>();
+        // A jump of more than one round visits every bucket once
+        long lastTick = Math.min(targetTick, currentTick + mask + 1);
+        while (currentTick < lastTick) {
+            currentTick++;
+            Set<Timer<K>> bucket = bucket(currentTick);
+            bucket.removeIf(timer -> {
+                if (timer.deadlineTick > targetTick) {
+                    return false;
+                }
+                timers.remove(timer.key);
+                expired.add(timer.key);
+                return true;
+            });
+        }
+        currentTick = Math.max(currentTick, targetTick);
+        return expired;
+    }
+
+    public int size() {
+        return timers.size();
+    }
+
+    private Set<Timer<K>> bucket(long tick) {
+        return buckets.get((int) (tick & mask));
+    }
+
+    private record Timer<K>(K key, long deadlineTick) {
+    }
+}
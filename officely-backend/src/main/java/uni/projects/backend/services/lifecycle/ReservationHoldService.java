@@ -0,0 +1,121 @@
+package uni.projects.backend.services.lifecycle;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import uni.projects.backend.dao.ReservationRepository;
+import uni.projects.backend.events.ReservationChangedEvent;
+import uni.projects.backend.events.ReservationSnapshot;
+import uni.projects.backend.models.reservation.ReservationHold;
+import uni.projects.backend.models.reservation.ReservationStatus;
+import uni.projects.backend.services.ReservationService;
+import uni.projects.backend.services.lock.LeaderElection;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Releases unpaid reservations once their hold expires.
+ * <p>
+ * Every reservation paid online is held for {@code reservation.hold.ttl-millis} after it is created; if it is not
+ * paid by then, it is cancelled and its dates become available again. The holds of this instance are timers of a
+ * {@link HashedTimingWheel}, advanced every tick, so a hold costs O(1) to start, end and expire however many are
+ * pending. The timers follow {@link ReservationChangedEvent}s and are loaded from the stored
+ * {@code holdExpiresAt} of the reservations on startup. Holds that no running instance has a timer for, e.g. of
+ * an instance that stopped, are released by a periodic sweep run by the instance holding the {@value #LEASE} lease.
+ * <p>
+ * A release is published as a cancellation, which updates the availability indexes and caches right away.
+ */
+@Slf4j
+@Service
+public class ReservationHoldService {
+
+    static final String LEASE = "reservation-hold-sweep";
+    private static final Set<ReservationStatus> HELD = Set.of(ReservationStatus.PENDING, ReservationStatus.ONGOING);
+
+    private final HashedTimingWheel<String> wheel;
+
+    @Value("${reservation.hold.sweep-chunk-size:500}")
+    private int sweepChunkSize;
+
+    @Value("${reservation.lifecycle.lease-millis:300000}")
+    private long leaseMillis;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private LeaderElection leaderElection;
+
+    public ReservationHoldService(@Value("${reservation.hold.tick-millis:1000}") long tickMillis,
+                                  @Value("${reservation.hold.wheel-size:1024}") int wheelSize) {
+        this.wheel = new HashedTimingWheel<>(tickMillis, wheelSize, System.currentTimeMillis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadHolds() {
+        List<ReservationHold> holds = reservationRepository.findHolds(HELD);
+        synchronized (wheel) {
+            holds.forEach(hold -> wheel.schedule(hold.getId(), hold.getHoldExpiresAt().toEpochMilli()));
+        }
+        log.info("Loaded {} reservation holds", holds.size());
+    }
+
+    @EventListener
+    public void onReservationChanged(ReservationChangedEvent event) {
+        ReservationSnapshot current = event.current();
+        synchronized (wheel) {
+            if (current.isHeld()) {
+                wheel.schedule(current.id(), current.holdExpiresAt().toEpochMilli());
+            } else {
+                wheel.cancel(current.id());
+            }
+        }
+    }
+
+    @Scheduled(fixedRateString = "${reservation.hold.tick-millis:1000}")
+    public void tick() {
+        List<String> expired;
+        synchronized (wheel) {
+            expired = wheel.advance(System.currentTimeMillis());
+        }
+        expired.forEach(this::release);
+    }
+
+    @Scheduled(fixedDelayString = "${reservation.hold.sweep-interval-millis:60000}")
+    public void sweep() {
+        if (!leaderElection.tryAcquire(LEASE, Duration.ofMillis(leaseMillis))) {
+            return;
+        }
+        List<String> ids = reservationRepository.findIdsWithHoldExpiredBefore(HELD, Instant.now(),
+                PageRequest.of(0, sweepChunkSize));
+        ids.forEach(this::release);
+    }
+
+    public int size() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    private void release(String id) {
+        try {
+            if (reservationService.releaseExpiredHold(id)) {
+                log.info("Released reservation {}, its hold expired without a payment", id);
+            }
+        } catch (RuntimeException e) {
+            // The sweep retries the release
+            log.warn("Could not release the expired hold of reservation {}", id, e);
+        }
+    }
+}
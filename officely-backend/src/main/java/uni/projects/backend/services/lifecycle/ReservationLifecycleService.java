@@ -0,0 +1,93 @@
+package uni.projects.backend.services.lifecycle;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import uni.projects.backend.dao.ReservationRepository;
+import uni.projects.backend.models.reservation.ReservationStatus;
+import uni.projects.backend.services.lock.LeaderElection;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Moves reservations through their lifecycle: PENDING to ONGOING on the start day and PENDING or ONGOING to
+ * COMPLETED once the end day has passed.
+ * <p>
+ * Every run selects the IDs of at most {@code chunk-size} due reservations and moves them with one UPDATE in its own
+ * transaction, until no due reservation is left. The selection depends only on the stored status and dates, so a run
+ * that stops half-way is resumed by the next one, and moving a reservation twice has no effect. Only the instance
+ * holding the {@value #LEASE} lease runs the job.
+ * <p>
+ * The transitions do not change which days are booked, so no {@link uni.projects.backend.events.ReservationChangedEvent}
+ * is published.
+ */
+@Slf4j
+@Service
+public class ReservationLifecycleService {
+
+    static final String LEASE = "reservation-lifecycle";
+    private static final Set<ReservationStatus> NOT_STARTED = Set.of(ReservationStatus.PENDING);
+    private static final Set<ReservationStatus> NOT_COMPLETED = Set.of(ReservationStatus.PENDING, ReservationStatus.ONGOING);
+
+    @Value("${reservation.lifecycle.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${reservation.lifecycle.lease-millis:300000}")
+    private long leaseMillis;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private LeaderElection leaderElection;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Scheduled(fixedDelayString = "${reservation.lifecycle.interval-millis:60000}")
+    public void advance() {
+        if (!leaderElection.tryAcquire(LEASE, Duration.ofMillis(leaseMillis))) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        int completed = transition(NOT_COMPLETED, ReservationStatus.COMPLETED,
+                page -> reservationRepository.findIdsByStatusInAndEndTimeBefore(NOT_COMPLETED, today, page));
+        int started = transition(NOT_STARTED, ReservationStatus.ONGOING,
+                page -> reservationRepository.findIdsByStatusInAndRunningOn(NOT_STARTED, today, page));
+        if (completed > 0 || started > 0) {
+            log.info("Reservation lifecycle: {} started, {} completed", started, completed);
+        }
+    }
+
+    /**
+     * Moves all due reservations chunk by chunk, extending the lease after every chunk.
+     *
+     * @return the number of reservations moved
+     */
+    private int transition(Set<ReservationStatus> expected, ReservationStatus status, Function<Pageable, List<String>> due) {
+        Pageable chunk = PageRequest.of(0, chunkSize);
+        int total = 0;
+        while (true) {
+            Integer updated = transactionTemplate.execute(tx -> {
+                List<String> ids = due.apply(chunk);
+                return ids.isEmpty() ? 0 : reservationRepository.updateStatus(ids, expected, status);
+            });
+            if (updated == null || updated == 0) {
+                return total;
+            }
+            total += updated;
+            if (!leaderElection.tryAcquire(LEASE, Duration.ofMillis(leaseMillis))) {
+                return total;
+            }
+        }
+    }
+}
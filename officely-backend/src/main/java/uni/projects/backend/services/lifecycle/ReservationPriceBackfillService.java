@@ -0,0 +1,72 @@
+package uni.projects.backend.services.lifecycle;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import uni.projects.backend.dao.ReservationRepository;
+import uni.projects.backend.services.analytics.ReservationAnalyticsService;
+import uni.projects.backend.services.lock.LeaderElection;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Keeps the stored duration and total price of reservations consistent with their dates and prices.
+ * <p>
+ * Price filters and sorting read {@code totalPrice} directly so that they can use an index, which is only correct
+ * when no row was written around {@link uni.projects.backend.models.reservation.Reservation}'s setters, e.g. rows
+ * imported or edited by hand. The job walks the stale rows in the order of their IDs, recomputing a chunk with one
+ * UPDATE in its own transaction, so every row is visited at most once per run. Only the instance holding the
+ * {@value #LEASE} lease runs the job. The updates publish no events, so the reservation cube is marked stale
+ * when any price changed.
+ */
+@Slf4j
+@Service
+public class ReservationPriceBackfillService {
+
+    static final String LEASE = "reservation-price-backfill";
+
+    @Value("${reservation.price-backfill.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${reservation.lifecycle.lease-millis:300000}")
+    private long leaseMillis;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private LeaderElection leaderElection;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ReservationAnalyticsService reservationAnalyticsService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${reservation.price-backfill.cron:0 30 3 * * *}")
+    public void backfill() {
+        String after = "";
+        int total = 0;
+        while (leaderElection.tryAcquire(LEASE, Duration.ofMillis(leaseMillis))) {
+            List<String> ids = reservationRepository.findIdsWithStalePriceAfter(after, PageRequest.of(0, chunkSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            Integer updated = transactionTemplate.execute(tx -> reservationRepository.recalculatePrices(ids));
+            total += updated == null ? 0 : updated;
+            after = ids.get(ids.size() - 1);
+        }
+        if (total > 0) {
+            reservationAnalyticsService.markStale();
+            log.info("Reservation price backfill: {} reservations recalculated", total);
+        }
+    }
+}
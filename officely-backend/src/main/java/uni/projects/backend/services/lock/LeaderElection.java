@@ -0,0 +1,78 @@
+package uni.projects.backend.services.lock;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import uni.projects.backend.dao.SchedulerLeaseRepository;
+import uni.projects.backend.models.SchedulerLease;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Elects one backend instance to run a scheduled job, using leases stored in the database.
+ * <p>
+ * An instance holds a job while its lease has not expired and extends it by claiming it again. When the holder
+ * stops, it releases its leases; when it dies, another instance takes over once the lease has expired.
+ */
+@Slf4j
+@Service
+public class LeaderElection {
+
+    private final String owner = UUID.randomUUID().toString();
+    private final Set<String> held = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    private SchedulerLeaseRepository schedulerLeaseRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Claims or extends the lease of a job.
+     *
+     * @param name the name of the job
+     * @param duration how long the lease is valid if not extended
+     * @return true if this instance now holds the lease
+     */
+    public boolean tryAcquire(String name, Duration duration) {
+        Instant now = Instant.now();
+        boolean acquired;
+        try {
+            acquired = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                if (schedulerLeaseRepository.claim(name, owner, now, now.plus(duration)) == 1) {
+                    return true;
+                }
+                if (schedulerLeaseRepository.existsById(name)) {
+                    return false;
+                }
+                schedulerLeaseRepository.saveAndFlush(new SchedulerLease(name, owner, now.plus(duration)));
+                return true;
+            }));
+        } catch (DataIntegrityViolationException e) {
+            acquired = false; // another instance created the lease first
+        }
+
+        if (acquired && held.add(name)) {
+            log.info("Became leader of {}", name);
+        } else if (!acquired && held.remove(name)) {
+            log.info("Lost leadership of {}", name);
+        }
+        return acquired;
+    }
+
+    @PreDestroy
+    public void releaseAll() {
+        Instant now = Instant.now();
+        for (String name : held) {
+            transactionTemplate.executeWithoutResult(status -> schedulerLeaseRepository.release(name, owner, now));
+        }
+        held.clear();
+    }
+}
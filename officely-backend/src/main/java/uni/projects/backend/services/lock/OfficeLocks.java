@@ -0,0 +1,75 @@
+package uni.projects.backend.services.lock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped in-process locks keyed by office ID.
+ * <p>
+ * Changes to the bookings of one office run one at a time, while offices mapped to different stripes proceed
+ * in parallel. The number of stripes is rounded up to a power of two; with the default of 1024 two offices
+ * share a stripe only rarely, and then merely wait for each other.
+ * <p>
+ * The locks only order the requests of this instance. Between instances, bookings are guarded by the
+ * version of the office row, see {@link uni.projects.backend.dao.OfficeRepository#findForBookingById}.
+ */
+@Service
+public class OfficeLocks {
+
+    private final ReentrantLock[] stripes;
+
+    public OfficeLocks(@Value("${reservation.office-locks.stripes:1024}") int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Runs the action while holding the lock of the office.
+     */
+    public <T> T withLock(String officeId, Supplier<T> action) {
+        ReentrantLock lock = stripeOf(officeId);
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs the action while holding the locks of all the offices. The stripes are always taken in the same order,
+     * so two callers locking overlapping sets of offices cannot deadlock.
+     */
+    public <T> T withLocks(Collection<String> officeIds, Supplier<T> action) {
+        int[] indexes = officeIds.stream().mapToInt(this::stripeIndex).distinct().sorted().toArray();
+        int locked = 0;
+        try {
+            for (int index : indexes) {
+                stripes[index].lock();
+                locked++;
+            }
+            return action.get();
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                stripes[indexes[i]].unlock();
+            }
+        }
+    }
+
+    private ReentrantLock stripeOf(String officeId) {
+        return stripes[stripeIndex(officeId)];
+    }
+
+    private int stripeIndex(String officeId) {
+        int hash = officeId.hashCode();
+        hash ^= hash >>> 16;
+        return hash & (stripes.length - 1);
+    }
+}
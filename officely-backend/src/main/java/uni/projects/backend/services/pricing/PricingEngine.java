@@ -0,0 +1,88 @@
+package uni.projects.backend.services.pricing;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import uni.projects.backend.services.TrafficStatisticService;
+import uni.projects.backend.services.index.TrafficStatisticIndex;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+
+/**
+ * Prices reservations day by day.
+ * <p>
+ * Every day of a reservation is charged with its own traffic multiplier, so the price multiplier of a reservation
+ * is the average multiplier of its charged days: from the start day up to, but excluding, the end day.
+ * <p>
+ * The multipliers of {@link #HORIZON_DAYS} days from today are kept as prefix sums, which makes the price of
+ * any range inside the horizon two array lookups. The calendar is recomputed from {@link TrafficStatisticIndex}
+ * when its statistics change or the day rolls over; ranges reaching past the horizon are computed day by day.
+ */
+@Service
+public class PricingEngine {
+
+    static final int HORIZON_DAYS = 2 * 366;
+
+    private volatile MultiplierCalendar calendar = new MultiplierCalendar(null, -1, new double[0]);
+
+    @Autowired
+    private TrafficStatisticIndex trafficStatisticIndex;
+
+    @Autowired
+    private TrafficStatisticService trafficStatisticService;
+
+    /**
+     * @param startTime the first charged day
+     * @param endTime the day after the last charged day
+     * @return the average multiplier of the charged days, 1.0 for an empty range
+     */
+    public double priceMultiplier(LocalDate startTime, LocalDate endTime) {
+        long days = ChronoUnit.DAYS.between(startTime, endTime);
+        if (days <= 0) {
+            return 1.0;
+        }
+        MultiplierCalendar current = currentCalendar();
+        if (current.covers(startTime, endTime)) {
+            return current.sum(startTime, endTime) / days;
+        }
+        double[] multipliers = trafficStatisticService.calculateDailyMultipliers(startTime, endTime.minusDays(1));
+        return Arrays.stream(multipliers).sum() / days;
+    }
+
+    private MultiplierCalendar currentCalendar() {
+        long version = trafficStatisticIndex.version();
+        MultiplierCalendar current = calendar;
+        LocalDate today = LocalDate.now();
+        if (current.version == version && today.equals(current.origin)) {
+            return current;
+        }
+
+        double[] multipliers = trafficStatisticService.calculateDailyMultipliers(today, today.plusDays(HORIZON_DAYS - 1));
+        double[] prefixSums = new double[multipliers.length + 1];
+        for (int day = 0; day < multipliers.length; day++) {
+            prefixSums[day + 1] = prefixSums[day] + multipliers[day];
+        }
+        current = new MultiplierCalendar(today, version, prefixSums);
+        calendar = current;
+        return current;
+    }
+
+    /**
+     * @param prefixSums the sum of the multipliers of the days before each day offset from origin
+     */
+    private record MultiplierCalendar(LocalDate origin, long version, double[] prefixSums) {
+
+        boolean covers(LocalDate startTime, LocalDate endTime) {
+            return origin != null && !startTime.isBefore(origin) && offset(endTime) < prefixSums.length;
+        }
+
+        double sum(LocalDate startTime, LocalDate endTime) {
+            return prefixSums[(int) offset(endTime)] - prefixSums[(int) offset(startTime)];
+        }
+
+        private long offset(LocalDate date) {
+            return date.toEpochDay() - origin.toEpochDay();
+        }
+    }
+}
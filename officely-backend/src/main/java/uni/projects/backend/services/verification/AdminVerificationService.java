@@ -20,4 +20,10 @@ public class AdminVerificationService implements VerificationService {
         else if (!permittedRoles.contains(user.getRole()))
             throw new UserValidationException("User is not an admin");
     }
+
+    @Override
+    public void verifyRole(Roles role) {
+        if (!permittedRoles.contains(role))
+            throw new UserValidationException("User is not an admin");
+    }
 }
@@ -1,5 +1,6 @@
 package uni.projects.backend.services.verification;
 
+import uni.projects.backend.models.user.Roles;
 import uni.projects.backend.models.user.User;
 
 public class AnyVerificationService implements VerificationService {
@@ -8,4 +9,9 @@ public class AnyVerificationService implements VerificationService {
     public void verifyUser(User user) {
         return;
     }
+
+    @Override
+    public void verifyRole(Roles role) {
+        return;
+    }
 }
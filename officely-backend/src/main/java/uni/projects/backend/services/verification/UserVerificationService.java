@@ -2,6 +2,7 @@ package uni.projects.backend.services.verification;
 
 
 import uni.projects.backend.exceptions.UserValidationException;
+import uni.projects.backend.models.user.Roles;
 import uni.projects.backend.models.user.User;
 
 public class UserVerificationService implements VerificationService {
@@ -10,4 +11,10 @@ public class UserVerificationService implements VerificationService {
         if (user == null)
             throw new UserValidationException("No such user");
     }
+
+    @Override
+    public void verifyRole(Roles role) {
+        if (role == null)
+            throw new UserValidationException("No such user");
+    }
 }
@@ -1,6 +1,7 @@
 package uni.projects.backend.services.verification;
 
 
+import uni.projects.backend.models.user.Roles;
 import uni.projects.backend.models.user.User;
 
 /**
@@ -19,4 +20,11 @@ public interface VerificationService {
      * @throws Exception if the verification fails
      */
     void verifyUser(User user) throws Exception;
+
+    /**
+     * Verifies a user known only by role, as carried by a bearer token.
+     *
+     * @param role the role of the user to verify
+     */
+    void verifyRole(Roles role);
 }
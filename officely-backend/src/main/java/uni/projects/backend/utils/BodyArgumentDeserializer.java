@@ -1,12 +1,18 @@
 package uni.projects.backend.utils;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
 import java.util.Map;
 
 /**
- * Utility class for deserializing body arguments from a map.
+ * Utility class for deserializing body arguments from a request body.
  */
 public class BodyArgumentDeserializer {
 
@@ -18,20 +24,41 @@ public class BodyArgumentDeserializer {
     }
 
     /**
-     * Deserializes a body argument from a map to the specified target class.
+     * Deserializes the arguments of a JSON object body in one pass over its tokens.
+     * <p>
+     * The value of every registered key is bound straight to its class, without building a tree of the body first;
+     * the values of other keys are skipped. A later duplicate of a key replaces the earlier one.
      *
-     * @param body the map containing the body arguments
-     * @param key the key of the argument to deserialize
-     * @param targetClass the class to deserialize the argument to
-     * @param <T> the type of the target class
-     * @return the deserialized argument, or null if the body is null or does not contain the key
+     * @param body the request body
+     * @param argumentClasses the class to deserialize the argument of each key to
+     * @return the deserialized arguments, empty if the body is empty
+     * @throws IOException if the body is not a JSON object or an argument does not match its class
      */
-    @SuppressWarnings("unchecked")
-    public static <T> T deserializeBodyArgument(Map<String, Object> body, String key, Class<?> targetClass) {
-        if (body == null || !body.containsKey(key)) {
-            return null;
+    public static BodyArguments deserializeBodyArguments(InputStream body, Map<String, Class<?>> argumentClasses)
+            throws IOException {
+        try (JsonParser parser = MAPPER.createParser(body)) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                return BodyArguments.EMPTY;
+            }
+            if (token != JsonToken.START_OBJECT) {
+                throw MismatchedInputException.from(parser, Map.class, "Request body must be a JSON object");
+            }
+
+            Map<String, Object> arguments = new HashMap<>();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String key = parser.currentName();
+                Class<?> argumentClass = argumentClasses.get(key);
+                parser.nextToken();
+                if (argumentClass == null) {
+                    parser.skipChildren();
+                } else if (parser.currentToken() == JsonToken.VALUE_NULL) {
+                    arguments.put(key, null);
+                } else {
+                    arguments.put(key, MAPPER.readValue(parser, argumentClass));
+                }
+            }
+            return new BodyArguments(arguments);
         }
-        Object value = body.get(key);
-        return (T) MAPPER.convertValue(value, targetClass);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,59 @@
+package uni.projects.backend.utils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The arguments of a request body, already deserialized to the types the controller registered for their keys.
+ * <p>
+ * Equal bodies are equal and have equal hash codes, also when an argument is an array, so a body can identify
+ * a request.
+ */
+public final class BodyArguments {
+
+    public static final BodyArguments EMPTY = new BodyArguments(Collections.emptyMap());
+
+    private final Map<String, Object> arguments;
+
+    public BodyArguments(Map<String, Object> arguments) {
+        this.arguments = Collections.unmodifiableMap(arguments);
+    }
+
+    /**
+     * @return the argument, or null if the body does not contain the key
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key) {
+        return (T) arguments.get(key);
+    }
+
+    public boolean containsKey(String key) {
+        return arguments.containsKey(key);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BodyArguments other) || arguments.size() != other.arguments.size()) {
+            return false;
+        }
+        return arguments.entrySet().stream().allMatch(argument -> other.arguments.containsKey(argument.getKey())
+                && Objects.deepEquals(argument.getValue(), other.arguments.get(argument.getKey())));
+    }
+
+    @Override
+    public int hashCode() {
+        return arguments.entrySet().stream()
+                .mapToInt(argument -> argument.getKey().hashCode() ^ Arrays.deepHashCode(new Object[]{argument.getValue()}))
+                .sum();
+    }
+
+    @Override
+    public String toString() {
+        return arguments.keySet().toString();
+    }
+}
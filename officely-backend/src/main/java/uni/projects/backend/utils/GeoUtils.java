@@ -0,0 +1,39 @@
+package uni.projects.backend.utils;
+
+/**
+ * Utility class for geographic calculations.
+ */
+public class GeoUtils {
+
+    public static final double EARTH_RADIUS = 6371.0;
+
+    /**
+     * Kilometres covered by one degree of latitude.
+     */
+    public static final double KM_PER_DEGREE = 111.32;
+
+    /**
+     * Calculates the great-circle distance between two points using the haversine formula.
+     *
+     * @param lat1 the latitude of the first point in degrees
+     * @param lon1 the longitude of the first point in degrees
+     * @param lat2 the latitude of the second point in degrees
+     * @param lon2 the longitude of the second point in degrees
+     * @return the distance in kilometres
+     */
+    public static double haversineDistance(double lat1, double lon1, double lat2, double lon2) {
+        double lat1Rad = Math.toRadians(lat1);
+        double lat2Rad = Math.toRadians(lat2);
+
+        double deltaLat = lat2Rad - lat1Rad;
+        double deltaLon = Math.toRadians(lon2 - lon1);
+
+        double a = Math.sin(deltaLat / 2) * Math.sin(deltaLat / 2) +
+                Math.cos(lat1Rad) * Math.cos(lat2Rad) *
+                        Math.sin(deltaLon / 2) * Math.sin(deltaLon / 2);
+
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+
+        return EARTH_RADIUS * c;
+    }
+}
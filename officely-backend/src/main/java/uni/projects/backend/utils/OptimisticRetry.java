@@ -0,0 +1,34 @@
+package uni.projects.backend.utils;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import uni.projects.backend.exceptions.ArgumentException;
+
+import java.util.function.Supplier;
+
+/**
+ * Utility class for changes of versioned entities that can collide with concurrent changes.
+ */
+public class OptimisticRetry {
+
+    /**
+     * Runs a change and, if the entity was changed by another request in between, runs it once more. The change must
+     * load the entity itself, so the second run sees the new version.
+     *
+     * @param change the change
+     * @param conflictMessage the message of the exception thrown if the second run collides as well
+     * @return the result of the change
+     * @throws ArgumentException if both runs collided with another change
+     */
+    public static <T> T retryOnce(Supplier<T> change, String conflictMessage) {
+        try {
+            return change.get();
+        } catch (OptimisticLockingFailureException e) {
+            try {
+                return change.get();
+            } catch (OptimisticLockingFailureException again) {
+                throw new ArgumentException(conflictMessage);
+            }
+        }
+    }
+
+}
@@ -78,6 +78,14 @@ public record OfficeDto(
         );
     }
 
+    /**
+     * @return a copy of this office with another price, e.g. after applying the price multiplier
+     */
+    public OfficeDto withPrice(Double price) {
+        return new OfficeDto(id, name, metricArea, floor, roomNumber, country, city, postalCode, address, x, y,
+                price, amenities, images, owner_email, owner_phone_number);
+    }
+
     public static Office convertTo(OfficeDto officeDto) {
         Office newOffice = new Office();
         newOffice.setId(officeDto.id());
@@ -0,0 +1,27 @@
+package uni.projects.backend.web;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+
+public record QuoteDto(
+        @Schema(description = "The start time of the quoted reservation", example = "2023-01-01")
+        @JsonFormat(pattern = "yyyy-MM-dd") LocalDate startTime,
+
+        @Schema(description = "The end time of the quoted reservation", example = "2023-01-10")
+        @JsonFormat(pattern = "yyyy-MM-dd") LocalDate endTime,
+
+        @Schema(description = "The duration of the reservation in days (should be left empty, will be returned but ignored if user passes it)", example = "9")
+        Long duration,
+
+        @Schema(description = "The price per day of the office (should be left empty, will be returned but ignored if user passes it)", example = "10.0")
+        Double pricePerDay,
+
+        @Schema(description = "The average price multiplier of the charged days (should be left empty, will be returned but ignored if user passes it)", example = "1.1")
+        Double priceMultiplier,
+
+        @Schema(description = "The total price of the reservation (should be left empty, will be returned but ignored if user passes it)", example = "99.0")
+        Double totalPrice
+) {
+}
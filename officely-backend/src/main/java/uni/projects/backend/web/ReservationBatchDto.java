@@ -0,0 +1,15 @@
+package uni.projects.backend.web;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import uni.projects.backend.models.reservation.BatchMode;
+
+import java.util.List;
+
+public record ReservationBatchDto(
+        @Schema(type = "Enum", types = {"ALL_OR_NOTHING", "BEST_EFFORT"}, description = "Whether the batch is rejected as a whole when one reservation cannot be booked (defaults to ALL_OR_NOTHING)", example = "ALL_OR_NOTHING")
+        BatchMode mode,
+
+        @Schema(description = "The reservations to create")
+        List<ReservationBatchItemDto> reservations
+) {
+}
@@ -0,0 +1,25 @@
+package uni.projects.backend.web;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import uni.projects.backend.models.reservation.PaymentType;
+
+import java.time.LocalDate;
+
+public record ReservationBatchItemDto(
+        @Schema(description = "The ID of the office to book", example = "1")
+        String officeId,
+
+        @Schema(description = "The start time of the reservation", example = "2023-01-01")
+        @JsonFormat(pattern = "yyyy-MM-dd") LocalDate startTime,
+
+        @Schema(description = "The end time of the reservation", example = "2023-01-10")
+        @JsonFormat(pattern = "yyyy-MM-dd") LocalDate endTime,
+
+        @Schema(type = "Enum", types = {"CASH", "CARD", "TRANSFER", "BLIK"}, description = "The payment type for the reservation", example = "CARD")
+        PaymentType paymentType,
+
+        @Schema(description = "Additional comments for the reservation", example = "No special requests")
+        String comments
+) {
+}
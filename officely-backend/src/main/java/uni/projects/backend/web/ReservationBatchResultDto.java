@@ -0,0 +1,15 @@
+package uni.projects.backend.web;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public record ReservationBatchResultDto(
+        @Schema(description = "The position of the reservation in the batch", example = "0")
+        int index,
+
+        @Schema(description = "The created reservation, empty if it could not be booked")
+        ReservationDto reservation,
+
+        @Schema(description = "Why the reservation could not be booked, empty if it was created", example = "Reservation overlaps with another reservation")
+        String error
+) {
+}
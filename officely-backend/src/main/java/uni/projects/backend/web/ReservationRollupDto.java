@@ -0,0 +1,33 @@
+package uni.projects.backend.web;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import uni.projects.backend.models.reservation.PaymentType;
+
+import java.util.Map;
+
+public record ReservationRollupDto(
+        @Schema(description = "The city, country or owner ID the row is aggregated for", example = "Warsaw")
+        String key,
+
+        @Schema(description = "The year of the row", example = "2024")
+        int year,
+
+        @Schema(description = "The month of the row, empty when rolled up by year", example = "6")
+        Integer month,
+
+        @Schema(description = "The number of office days booked", example = "42")
+        long bookedDays,
+
+        @Schema(description = "The revenue of the booked days", example = "4200.0")
+        double revenue,
+
+        @Schema(description = "The number of reservations cancelled that were to start in the period", example = "3")
+        long cancellations,
+
+        @Schema(description = "The booked days per payment type", example = "{\"CARD\": 30, \"BLIK\": 12}")
+        Map<PaymentType, Long> bookedDaysByPaymentType,
+
+        @Schema(description = "The share of office days booked, of all days of the current offices in the period", example = "0.35")
+        double occupancy
+) {
+}
@@ -0,0 +1,14 @@
+package uni.projects.backend.web;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+public record TokenDto(
+        @Schema(description = "The token, to be sent as 'Bearer <token>' in the Authorization header", example = "eyJhbGciOiJIUzI1NiJ9...")
+        String token,
+
+        @Schema(description = "When the token expires", example = "2024-06-01T12:15:00Z")
+        Instant expiresAt
+) {
+}
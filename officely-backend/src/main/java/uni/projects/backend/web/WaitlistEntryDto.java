@@ -0,0 +1,62 @@
+package uni.projects.backend.web;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import uni.projects.backend.models.reservation.PaymentType;
+import uni.projects.backend.models.reservation.WaitlistEntry;
+import uni.projects.backend.models.reservation.WaitlistStatus;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+public record WaitlistEntryDto(
+        @Schema(description = "The ID of the entry (should be left empty when created, will be returned but ignored if user passes it)", example = "1")
+        String id,
+
+        @Schema(description = "The ID of the office to wait for, leave empty to wait for any office of the city", example = "1")
+        String officeId,
+
+        @Schema(description = "The city of the offices to wait for, when no office is given", example = "Warsaw")
+        String city,
+
+        @Schema(description = "The highest price per day of an office of the city that may be booked", example = "120.0")
+        Double maxPricePerDay,
+
+        @Schema(description = "The start time of the wanted reservation", example = "2023-01-01")
+        @JsonFormat(pattern = "yyyy-MM-dd") LocalDate startTime,
+
+        @Schema(description = "The end time of the wanted reservation", example = "2023-01-10")
+        @JsonFormat(pattern = "yyyy-MM-dd") LocalDate endTime,
+
+        @Schema(type = "Enum", types = {"CASH", "CARD", "TRANSFER", "BLIK"}, description = "The payment type of the reservation booked for the entry", example = "CARD")
+        PaymentType paymentType,
+
+        @Schema(description = "Additional comments for the reservation", example = "No special requests")
+        String comments,
+
+        @Schema(type = "Enum", types = {"WAITING", "FULFILLED", "EXPIRED", "CANCELLED"}, description = "The status of the entry (should be left empty when created, will be returned but ignored if user passes it)", example = "WAITING")
+        WaitlistStatus status,
+
+        @Schema(description = "The ID of the reservation booked for the entry, once fulfilled (should be left empty when created, will be returned but ignored if user passes it)", example = "1")
+        String reservationId,
+
+        @Schema(description = "When the entry was created (should be left empty when created, will be returned but ignored if user passes it)", example = "2023-01-01T10:00:00Z")
+        Instant createdAt
+) {
+
+    public static WaitlistEntryDto valueFrom(WaitlistEntry entry) {
+        return new WaitlistEntryDto(
+                entry.getId(),
+                entry.getOffice() != null ? entry.getOffice().getId() : null,
+                entry.getCity(),
+                entry.getMaxPricePerDay(),
+                entry.getStartTime(),
+                entry.getEndTime(),
+                entry.getPaymentType(),
+                entry.getComments(),
+                entry.getStatus(),
+                entry.getReservationId(),
+                entry.getCreatedAt()
+        );
+    }
+}
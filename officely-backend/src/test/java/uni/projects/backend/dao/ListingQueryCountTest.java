@@ -0,0 +1,169 @@
+package uni.projects.backend.dao;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import uni.projects.backend.models.PageQuery;
+import uni.projects.backend.models.office.Amenity;
+import uni.projects.backend.models.office.Image;
+import uni.projects.backend.models.office.Office;
+import uni.projects.backend.models.office.OfficeFilter;
+import uni.projects.backend.models.reservation.PaymentType;
+import uni.projects.backend.models.reservation.Reservation;
+import uni.projects.backend.models.reservation.ReservationFilter;
+import uni.projects.backend.models.reservation.ReservationStatus;
+import uni.projects.backend.models.user.Roles;
+import uni.projects.backend.models.user.User;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that loading a listing page as DTOs runs a fixed number of SQL statements, whatever the page size.
+ * <p>
+ * Expected: one projection query for the page, plus one query each for the amenities and the image IDs
+ * of the offices on the page.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ListingQueryCountTest {
+
+    private static final int OFFICES = 60;
+    private static final long MAX_STATEMENTS = 3;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private OfficeRepository officeRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        List<Amenity> amenities = List.of(amenity("WiFi"), amenity("Coffee"), amenity("Parking"));
+        List<Image> images = List.of(image(), image());
+        user = entityManager.persist(user("guest"));
+
+        for (int i = 0; i < OFFICES; i++) {
+            // a separate owner per office, so that lazily loaded owners would show up as extra statements
+            User owner = entityManager.persist(user("owner" + i));
+            Office office = entityManager.persist(office(i, owner, amenities, images));
+            entityManager.persist(reservation(office, user, i));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void officeSearchRunsConstantNumberOfStatements() {
+        assertBounded(pageSize -> officeRepository.findOfficePage(new OfficeFilter(), null, null, page("city", pageSize)).content());
+    }
+
+    @Test
+    void userReservationsRunConstantNumberOfStatements() {
+        assertBounded(pageSize -> reservationRepository.findReservationPage(user, new ReservationFilter(), page("startTime", pageSize)).content());
+    }
+
+    @Test
+    void adminReservationsRunConstantNumberOfStatements() {
+        assertBounded(pageSize -> reservationRepository.findReservationPage(null, new ReservationFilter(), page("office.city", pageSize)).content());
+    }
+
+    private void assertBounded(IntFunction<List<?>> listing) {
+        long small = countStatements(listing, 5);
+        long large = countStatements(listing, 50);
+
+        assertTrue(small <= MAX_STATEMENTS, "page of 5 ran " + small + " statements");
+        assertEquals(small, large, "statement count depends on the page size");
+    }
+
+    private long countStatements(IntFunction<List<?>> listing, int pageSize) {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<?> page = listing.apply(pageSize);
+
+        assertEquals(pageSize, page.size());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private static PageQuery page(String sortProperty, int pageSize) {
+        return new PageQuery(sortProperty, sortProperty, true, 0, pageSize, null);
+    }
+
+    private Amenity amenity(String name) {
+        Amenity amenity = new Amenity();
+        amenity.setName(name);
+        return entityManager.persist(amenity);
+    }
+
+    private Image image() {
+        Image image = new Image();
+        image.setData(new byte[]{1, 2, 3});
+        return entityManager.persist(image);
+    }
+
+    private static User user(String name) {
+        User user = new User();
+        user.setEmail(name + "@example.com");
+        user.setName(name);
+        user.setSurname(name);
+        user.setPhoneNumber("+48" + Math.abs(name.hashCode()));
+        user.setBirthDate(LocalDate.of(1990, 1, 1));
+        user.setRole(Roles.USER);
+        return user;
+    }
+
+    private static Office office(int i, User owner, List<Amenity> amenities, List<Image> images) {
+        Office office = new Office();
+        office.setName("Office " + i);
+        office.setMetricArea(20 + i);
+        office.setFloor(i % 5);
+        office.setRoomNumber(100 + i);
+        office.setCountry("Poland");
+        office.setCity("City " + (i % 7));
+        office.setPostalCode("00-" + (100 + i));
+        office.setAddress("Street " + i);
+        office.setX(21.0 + i / 100.0);
+        office.setY(52.0 + i / 100.0);
+        office.setPrice(100 + i);
+        office.setAmenities(amenities.subList(0, 1 + i % amenities.size()));
+        office.setImages(images.subList(0, 1 + i % images.size()));
+        office.setOwner(owner);
+        return office;
+    }
+
+    private static Reservation reservation(Office office, User user, int i) {
+        Reservation reservation = new Reservation();
+        reservation.setOffice(office);
+        reservation.setUser(user);
+        reservation.setStartTime(LocalDate.now().plusDays(i));
+        reservation.setEndTime(LocalDate.now().plusDays(i + 2));
+        reservation.setBookedAt(LocalDate.now());
+        reservation.setStatus(ReservationStatus.PENDING);
+        reservation.setPaymentType(PaymentType.CARD);
+        reservation.setPricePerDay(office.getPrice());
+        reservation.setPriceMultiplier(1);
+        reservation.setComments("");
+        return reservation;
+    }
+}
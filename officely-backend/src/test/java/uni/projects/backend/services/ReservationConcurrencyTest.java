@@ -0,0 +1,213 @@
+package uni.projects.backend.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import uni.projects.backend.dao.OfficeRepository;
+import uni.projects.backend.dao.ReservationRepository;
+import uni.projects.backend.dao.UserRepository;
+import uni.projects.backend.exceptions.ArgumentException;
+import uni.projects.backend.models.office.Office;
+import uni.projects.backend.models.reservation.PaymentType;
+import uni.projects.backend.models.reservation.ReservationPeriod;
+import uni.projects.backend.models.user.Roles;
+import uni.projects.backend.models.user.User;
+import uni.projects.backend.services.index.ReservationIntervalIndex;
+import uni.projects.backend.services.index.TrafficStatisticIndex;
+import uni.projects.backend.services.lock.OfficeLocks;
+import uni.projects.backend.services.pricing.PricingEngine;
+import uni.projects.backend.web.ReservationDto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Books offices from many threads at once and checks that no two active reservations of an office overlap,
+ * while bookings of different offices all succeed.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@Import({ReservationService.class, OfficeLocks.class, PricingEngine.class, ReservationIntervalIndex.class,
+        TrafficStatisticService.class, TrafficStatisticIndex.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReservationConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private OfficeRepository officeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        reservationRepository.deleteAll();
+        officeRepository.deleteAll();
+        userRepository.deleteAll();
+        user = userRepository.save(user("guest"));
+    }
+
+    @Test
+    void sameRangeOfOneOfficeIsBookedOnce() throws Exception {
+        Office office = officeRepository.save(office(0));
+        LocalDate start = LocalDate.now().plusDays(1);
+
+        List<Outcome> outcomes = runConcurrently(THREADS * 4, i -> () -> reservationService.createReservation(
+                reservation(start, start.plusDays(3)), user, office.getId()));
+
+        assertEquals(1, outcomes.stream().filter(Outcome::succeeded).count());
+        outcomes.stream().filter(outcome -> !outcome.succeeded())
+                .forEach(outcome -> assertInstanceOf(ArgumentException.class, outcome.failure()));
+        assertEquals(1, reservationRepository.findActivePeriodsByOfficeId(office.getId(), LocalDate.now()).size());
+        assertEquals(1, officeRepository.findById(office.getId()).orElseThrow().getVersion());
+    }
+
+    @Test
+    void differentOfficesAreAllBooked() throws Exception {
+        List<Office> offices = new ArrayList<>();
+        for (int i = 0; i < THREADS * 4; i++) {
+            offices.add(officeRepository.save(office(i)));
+        }
+        LocalDate start = LocalDate.now().plusDays(1);
+
+        List<Outcome> outcomes = runConcurrently(offices.size(), i -> () -> reservationService.createReservation(
+                reservation(start, start.plusDays(3)), user, offices.get(i).getId()));
+
+        outcomes.forEach(outcome -> assertTrue(outcome.succeeded(), () -> "booking failed: " + outcome.failure()));
+        assertEquals(offices.size(), reservationRepository.count());
+    }
+
+    @Test
+    void randomRangesNeverOverlap() throws Exception {
+        List<Office> offices = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            offices.add(officeRepository.save(office(i)));
+        }
+        LocalDate today = LocalDate.now();
+
+        List<Outcome> outcomes = runConcurrently(THREADS * 16, i -> () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            LocalDate start = today.plusDays(1 + random.nextInt(30));
+            return reservationService.createReservation(reservation(start, start.plusDays(1 + random.nextInt(4))),
+                    user, offices.get(random.nextInt(offices.size())).getId());
+        });
+
+        assertTrue(outcomes.stream().anyMatch(Outcome::succeeded));
+        outcomes.stream().filter(outcome -> !outcome.succeeded())
+                .forEach(outcome -> assertInstanceOf(ArgumentException.class, outcome.failure()));
+        for (Office office : offices) {
+            List<ReservationPeriod> periods = reservationRepository.findActivePeriodsByOfficeId(office.getId(), LocalDate.now());
+            for (int a = 0; a < periods.size(); a++) {
+                for (int b = a + 1; b < periods.size(); b++) {
+                    assertFalse(overlap(periods.get(a), periods.get(b)),
+                            "overlapping reservations " + periods.get(a).getId() + " and " + periods.get(b).getId());
+                }
+            }
+        }
+    }
+
+    private List<Outcome> runConcurrently(int tasks, TaskFactory factory) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Outcome>> futures = new ArrayList<>();
+            for (int i = 0; i < tasks; i++) {
+                Callable<ReservationDto> task = factory.create(i);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        task.call();
+                        return new Outcome(null);
+                    } catch (Exception e) {
+                        return new Outcome(e);
+                    }
+                }));
+            }
+            start.countDown();
+
+            List<Outcome> outcomes = new ArrayList<>();
+            for (Future<Outcome> future : futures) {
+                outcomes.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return outcomes;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static boolean overlap(ReservationPeriod a, ReservationPeriod b) {
+        return !a.getStartTime().isAfter(b.getEndTime()) && !b.getStartTime().isAfter(a.getEndTime());
+    }
+
+    private static ReservationDto reservation(LocalDate startTime, LocalDate endTime) {
+        return new ReservationDto(null, null, startTime, endTime, null, null, null, null,
+                PaymentType.CARD, 0, 0, null, false, null);
+    }
+
+    private User owner(int i) {
+        return userRepository.save(user("owner" + i));
+    }
+
+    private Office office(int i) {
+        Office office = new Office();
+        office.setName("Office " + i);
+        office.setMetricArea(20 + i);
+        office.setFloor(i % 5);
+        office.setRoomNumber(100 + i);
+        office.setCountry("Poland");
+        office.setCity("Warsaw");
+        office.setPostalCode("00-" + (100 + i));
+        office.setAddress("Street " + i);
+        office.setX(21.0);
+        office.setY(52.0);
+        office.setPrice(100 + i);
+        office.setOwner(owner(i));
+        return office;
+    }
+
+    private static User user(String name) {
+        User user = new User();
+        user.setEmail(name + "@example.com");
+        user.setName(name);
+        user.setSurname(name);
+        user.setPhoneNumber("+48" + Math.abs(name.hashCode()));
+        user.setBirthDate(LocalDate.of(1990, 1, 1));
+        user.setRole(Roles.USER);
+        return user;
+    }
+
+    private interface TaskFactory {
+        Callable<ReservationDto> create(int i);
+    }
+
+    private record Outcome(Exception failure) {
+        boolean succeeded() {
+            return failure == null;
+        }
+    }
+}
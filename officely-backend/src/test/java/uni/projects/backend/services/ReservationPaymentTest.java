@@ -0,0 +1,136 @@
+package uni.projects.backend.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import uni.projects.backend.dao.OfficeRepository;
+import uni.projects.backend.dao.ReservationRepository;
+import uni.projects.backend.dao.UserRepository;
+import uni.projects.backend.models.office.Office;
+import uni.projects.backend.models.reservation.PaymentType;
+import uni.projects.backend.models.reservation.Reservation;
+import uni.projects.backend.models.reservation.ReservationStatus;
+import uni.projects.backend.models.user.Roles;
+import uni.projects.backend.models.user.User;
+import uni.projects.backend.services.index.ReservationIntervalIndex;
+import uni.projects.backend.services.index.TrafficStatisticIndex;
+import uni.projects.backend.services.lifecycle.ReservationLifecycleService;
+import uni.projects.backend.services.lock.LeaderElection;
+import uni.projects.backend.services.lock.OfficeLocks;
+import uni.projects.backend.services.pricing.PricingEngine;
+import uni.projects.backend.web.ReservationDto;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pays a held reservation that the lifecycle job has already started, as happens to online bookings starting today.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@Import({ReservationService.class, OfficeLocks.class, PricingEngine.class, ReservationIntervalIndex.class,
+        TrafficStatisticService.class, TrafficStatisticIndex.class, ReservationLifecycleService.class,
+        LeaderElection.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReservationPaymentTest {
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationLifecycleService reservationLifecycleService;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private OfficeRepository officeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    private Office office;
+
+    @BeforeEach
+    void setUp() {
+        reservationRepository.deleteAll();
+        officeRepository.deleteAll();
+        userRepository.deleteAll();
+        user = userRepository.save(user("guest"));
+        office = officeRepository.save(office(userRepository.save(user("owner"))));
+    }
+
+    @Test
+    void startedReservationCanBePaidWhileHeld() {
+        LocalDate today = LocalDate.now();
+        ReservationDto created = reservationService.createReservation(reservation(today, today.plusDays(2)), user, office.getId());
+
+        reservationLifecycleService.advance();
+
+        Reservation started = reservationRepository.findById(created.id()).orElseThrow();
+        assertEquals(ReservationStatus.ONGOING, started.getStatus());
+        assertFalse(started.isPaid());
+
+        ReservationDto paid = reservationService.payReservation(created.id(), user);
+
+        Reservation stored = reservationRepository.findById(created.id()).orElseThrow();
+        assertTrue(paid.paid());
+        assertTrue(stored.isPaid());
+        assertEquals(ReservationStatus.ONGOING, stored.getStatus());
+        assertNull(stored.getHoldExpiresAt());
+        assertFalse(reservationService.releaseExpiredHold(created.id()));
+    }
+
+    @Test
+    void lifecycleUpdateIncrementsVersion() {
+        LocalDate today = LocalDate.now();
+        ReservationDto created = reservationService.createReservation(reservation(today, today.plusDays(2)), user, office.getId());
+        long version = reservationRepository.findById(created.id()).orElseThrow().getVersion();
+
+        reservationLifecycleService.advance();
+
+        assertEquals(version + 1, reservationRepository.findById(created.id()).orElseThrow().getVersion());
+    }
+
+    private static ReservationDto reservation(LocalDate startTime, LocalDate endTime) {
+        return new ReservationDto(null, null, startTime, endTime, null, null, null, null,
+                PaymentType.CARD, 0, 0, null, false, null);
+    }
+
+    private static Office office(User owner) {
+        Office office = new Office();
+        office.setName("Office");
+        office.setMetricArea(20);
+        office.setFloor(1);
+        office.setRoomNumber(100);
+        office.setCountry("Poland");
+        office.setCity("Warsaw");
+        office.setPostalCode("00-100");
+        office.setAddress("Street 1");
+        office.setX(21.0);
+        office.setY(52.0);
+        office.setPrice(100);
+        office.setOwner(owner);
+        return office;
+    }
+
+    private static User user(String name) {
+        User user = new User();
+        user.setEmail(name + "@example.com");
+        user.setName(name);
+        user.setSurname(name);
+        user.setPhoneNumber("+48" + Math.abs(name.hashCode()));
+        user.setBirthDate(LocalDate.of(1990, 1, 1));
+        user.setRole(Roles.USER);
+        return user;
+    }
+}
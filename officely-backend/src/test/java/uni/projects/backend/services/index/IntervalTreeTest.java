@@ -0,0 +1,103 @@
+package uni.projects.backend.services.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks overlap queries of closed intervals at their boundaries and after removals, and against a linear scan.
+ */
+class IntervalTreeTest {
+
+    @Test
+    void closedIntervalsOverlapAtSharedBoundary() {
+        IntervalTree tree = new IntervalTree();
+        tree.insert("a", 10, 20);
+
+        assertTrue(tree.overlaps(20, 30, null));
+        assertTrue(tree.overlaps(0, 10, null));
+        assertTrue(tree.overlaps(15, 15, null));
+        assertFalse(tree.overlaps(21, 30, null));
+        assertFalse(tree.overlaps(0, 9, null));
+    }
+
+    @Test
+    void excludedIntervalIsIgnored() {
+        IntervalTree tree = new IntervalTree();
+        tree.insert("a", 10, 20);
+        tree.insert("b", 30, 40);
+
+        assertFalse(tree.overlaps(12, 18, "a"));
+        assertTrue(tree.overlaps(12, 30, "a"));
+    }
+
+    @Test
+    void removedIntervalNoLongerOverlaps() {
+        IntervalTree tree = new IntervalTree();
+        tree.insert("a", 10, 20);
+        tree.insert("b", 5, 50);
+        tree.insert("c", 60, 70);
+
+        tree.remove("b");
+
+        assertFalse(tree.contains("b"));
+        assertEquals(2, tree.size());
+        assertFalse(tree.overlaps(30, 40, null));
+        assertEquals(List.of("a"), tree.findOverlapping(0, 25));
+
+        tree.remove("b");
+        assertEquals(2, tree.size());
+    }
+
+    @Test
+    void insertReplacesIntervalWithSameId() {
+        IntervalTree tree = new IntervalTree();
+        tree.insert("a", 10, 20);
+        tree.insert("a", 100, 200);
+
+        assertEquals(1, tree.size());
+        assertFalse(tree.overlaps(10, 20, null));
+        assertTrue(tree.overlaps(150, 150, null));
+    }
+
+    @Test
+    void findOverlappingMatchesLinearScan() {
+        Random random = new Random(42);
+        IntervalTree tree = new IntervalTree();
+        Map<String, long[]> intervals = new HashMap<>();
+        for (int i = 0; i < 2000; i++) {
+            String id = "r" + random.nextInt(300);
+            if (random.nextInt(4) == 0) {
+                tree.remove(id);
+                intervals.remove(id);
+            } else {
+                long start = random.nextInt(1000);
+                long end = start + random.nextInt(30);
+                tree.insert(id, start, end);
+                intervals.put(id, new long[]{start, end});
+            }
+
+            long start = random.nextInt(1000);
+            long end = start + random.nextInt(30);
+            List<String> expected = new ArrayList<>();
+            intervals.forEach((key, interval) -> {
+                if (interval[0] <= end && interval[1] >= start) {
+                    expected.add(key);
+                }
+            });
+            List<String> found = tree.findOverlapping(start, end);
+            assertEquals(expected.size(), found.size());
+            assertTrue(found.containsAll(expected));
+            assertEquals(!expected.isEmpty(), tree.overlaps(start, end, null));
+            assertEquals(intervals.size(), tree.size());
+        }
+    }
+}
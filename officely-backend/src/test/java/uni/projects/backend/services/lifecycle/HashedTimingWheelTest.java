@@ -0,0 +1,85 @@
+package uni.projects.backend.services.lifecycle;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that timers expire on their own tick only, across rounds of the wheel, jumps in time and rescheduling.
+ */
+class HashedTimingWheelTest {
+
+    private static final long TICK = 10;
+
+    @Test
+    void timerOfLaterRoundIsSkippedUntilItsRound() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(TICK, 8, 0);
+        wheel.schedule("late", 85);
+
+        assertEquals(List.of(), wheel.advance(15));
+        assertEquals(List.of(), wheel.advance(80));
+        assertEquals(List.of("late"), wheel.advance(90));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void timersKeepExpiringAfterTheWheelWrapsAround() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(TICK, 8, 0);
+        for (long now = 0; now < 500; now += TICK) {
+            wheel.schedule("timer", now + 3 * TICK);
+            wheel.advance(now + 2 * TICK);
+            assertEquals(1, wheel.size());
+            assertEquals(List.of("timer"), wheel.advance(now + 3 * TICK));
+        }
+    }
+
+    @Test
+    void jumpLongerThanOneRoundExpiresEveryDueTimer() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(TICK, 8, 0);
+        wheel.schedule("first", 30);
+        wheel.schedule("second", 500);
+        wheel.schedule("future", 2000);
+
+        assertEquals(Set.of("first", "second"), Set.copyOf(wheel.advance(1000)));
+        assertEquals(1, wheel.size());
+
+        wheel.schedule("next", 1010);
+        assertEquals(List.of("next"), wheel.advance(1010));
+        assertEquals(List.of("future"), wheel.advance(2000));
+    }
+
+    @Test
+    void rescheduleReplacesTheTimer() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(TICK, 8, 0);
+        wheel.schedule("held", 30);
+        wheel.schedule("held", 200);
+
+        assertEquals(1, wheel.size());
+        assertEquals(List.of(), wheel.advance(100));
+        assertEquals(List.of("held"), wheel.advance(200));
+    }
+
+    @Test
+    void cancelledTimerDoesNotExpire() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(TICK, 8, 0);
+        wheel.schedule("paid", 30);
+
+        assertTrue(wheel.cancel("paid"));
+        assertFalse(wheel.cancel("paid"));
+        assertEquals(List.of(), wheel.advance(100));
+    }
+
+    @Test
+    void passedDeadlineExpiresOnNextTick() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(TICK, 8, 1000);
+        wheel.schedule("overdue", 500);
+
+        assertEquals(List.of(), wheel.advance(1005));
+        assertEquals(List.of("overdue"), wheel.advance(1010));
+    }
+}
@@ -0,0 +1,93 @@
+package uni.projects.backend.utils;
+
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import org.junit.jupiter.api.Test;
+import uni.projects.backend.web.AmenityDto;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks which keys of a body are bound, how null and malformed bodies are handled and that bodies identify requests.
+ */
+class BodyArgumentDeserializerTest {
+
+    private static final Map<String, Class<?>> ARGUMENTS = Map.of(
+            "amenity", AmenityDto.class,
+            "ids", Integer[].class);
+
+    @Test
+    void unknownKeysAreSkippedWithTheirNestedValues() throws IOException {
+        BodyArguments body = deserialize("""
+                {"other": {"amenity": {"id": 2}, "list": [1, [2, {"ids": [3]}]]},
+                 "amenity": {"id": 1, "name": "WiFi"},
+                 "ignored": [{"amenity": null}]}""");
+
+        assertEquals(new AmenityDto(1, "WiFi"), body.get("amenity"));
+        assertFalse(body.containsKey("ids"));
+        assertFalse(body.containsKey("other"));
+        assertFalse(body.containsKey("ignored"));
+    }
+
+    @Test
+    void unknownPropertiesOfAnArgumentAreRejected() {
+        assertThrows(IOException.class, () -> deserialize("{\"amenity\": {\"id\": 1, \"color\": \"red\"}}"));
+    }
+
+    @Test
+    void nullArgumentIsPresentButNull() throws IOException {
+        BodyArguments body = deserialize("{\"amenity\": null}");
+
+        assertTrue(body.containsKey("amenity"));
+        assertNull(body.get("amenity"));
+    }
+
+    @Test
+    void emptyBodyHasNoArguments() throws IOException {
+        assertSame(BodyArguments.EMPTY, deserialize(""));
+        assertEquals(BodyArguments.EMPTY, deserialize("{}"));
+    }
+
+    @Test
+    void bodyThatIsNotAnObjectIsRejected() {
+        assertThrows(MismatchedInputException.class, () -> deserialize("[{\"amenity\": {\"id\": 1}}]"));
+        assertThrows(MismatchedInputException.class, () -> deserialize("\"amenity\""));
+        assertThrows(MismatchedInputException.class, () -> deserialize("null"));
+    }
+
+    @Test
+    void argumentOfWrongTypeIsRejected() {
+        assertThrows(IOException.class, () -> deserialize("{\"ids\": {\"id\": 1}}"));
+    }
+
+    @Test
+    void laterDuplicateKeyReplacesEarlierOne() throws IOException {
+        BodyArguments body = deserialize("{\"ids\": [1], \"ids\": [2, 3]}");
+
+        assertArrayEquals(new Integer[]{2, 3}, body.get("ids"));
+    }
+
+    @Test
+    void equalBodiesWithArraysAreEqual() throws IOException {
+        BodyArguments first = deserialize("{\"ids\": [1, 2], \"amenity\": {\"id\": 1}}");
+        BodyArguments second = deserialize("{\"amenity\": {\"id\": 1}, \"unknown\": 0, \"ids\": [1, 2]}");
+
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+    }
+
+    private static BodyArguments deserialize(String json) throws IOException {
+        return BodyArgumentDeserializer.deserializeBodyArguments(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), ARGUMENTS);
+    }
+}